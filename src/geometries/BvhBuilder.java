@@ -0,0 +1,816 @@
+package geometries;
+
+import primitives.BoundingBox;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The BvhBuilder class builds a bounding volume hierarchy over a list of bounded intersectables.
+ * <p>
+ * Every node is split on the axis and position that minimize the surface area heuristic (SAH),
+ * searched by binning the primitive centroids. A node becomes a leaf when it is small enough,
+ * or when splitting it is estimated to cost more than intersecting all of its primitives.
+ * <p>
+ * The build can run in a fork-join pool: the top levels bound and bin their primitives in parallel chunks,
+ * and large sub-hierarchies are built independently. The result is the same tree as the serial build.
+ * <p>
+ * For fast rebuilds, {@link #buildLinear()} builds a linear hierarchy from Morton codes instead.
+ */
+class BvhBuilder {
+    /**
+     * The number of centroid bins per axis.
+     */
+    static final int BINS = 12;
+
+    /**
+     * The estimated cost of traversing an inner node, relative to intersecting a primitive.
+     */
+    static final double TRAVERSAL_COST = 0.125;
+
+    /**
+     * The estimated cost of intersecting a single primitive.
+     */
+    static final double INTERSECTION_COST = 1.0;
+
+    /**
+     * A node with at most this number of primitives is always a leaf.
+     */
+    static final int MIN_LEAF_SIZE = 2;
+
+    /**
+     * A node with more than this number of primitives is always split, if possible.
+     */
+    static final int MAX_LEAF_SIZE = 8;
+
+    /**
+     * In a parallel build, ranges with more primitives than this are bounded and binned in parallel chunks.
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    /**
+     * In a parallel build, sub-hierarchies with at least this number of primitives fork their left child.
+     */
+    static final int SUBTREE_SIZE = 1024;
+
+    /**
+     * A node of the linear hierarchy with at most this number of primitives is a leaf.
+     */
+    static final int LINEAR_LEAF_SIZE = 4;
+
+    /**
+     * The number of Morton grid cells per axis (21 bits per axis, 63 bits per code).
+     */
+    private static final long MORTON_CELLS = 1L << 21;
+
+    /**
+     * The number of bits sorted by every pass of the radix sort.
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * The number of digits of every pass of the radix sort.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * The primitives of the hierarchy.
+     */
+    final Intersectable[] primitives;
+
+    /**
+     * The bounds of the primitives, six values per primitive (min x, y, z and max x, y, z).
+     */
+    final double[] bounds;
+
+    /**
+     * The centroids of the primitives' bounds, three values per primitive.
+     */
+    final double[] centroids;
+
+    /**
+     * The primitive indices, reordered during the build so every node covers a contiguous range.
+     */
+    final int[] order;
+
+    /**
+     * A node of the built hierarchy.
+     */
+    static final class Node {
+        /**
+         * The bounds of the node (min x, y, z and max x, y, z).
+         */
+        final double[] box;
+
+        /**
+         * The first index of the node's range in the order array.
+         */
+        final int start;
+
+        /**
+         * The number of primitives in the node's range.
+         */
+        final int count;
+
+        /**
+         * The children of the node, null for leaves.
+         */
+        Node left, right;
+
+        /**
+         * Constructs a new node over the given range.
+         *
+         * @param box   The bounds of the node.
+         * @param start The first index of the range.
+         * @param count The number of primitives in the range.
+         */
+        Node(double[] box, int start, int count) {
+            this.box = box;
+            this.start = start;
+            this.count = count;
+        }
+
+        /**
+         * Checks if the node is a leaf.
+         *
+         * @return True if the node has no children, false otherwise.
+         */
+        boolean isLeaf() {
+            return left == null;
+        }
+    }
+
+    /**
+     * The pool that runs the build tasks in parallel, null for a serial build.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a serial builder over the given primitives. All of them must have a finite bounding box.
+     *
+     * @param primitives The primitives to build the hierarchy over.
+     */
+    BvhBuilder(List<Intersectable> primitives) {
+        this(primitives, null);
+    }
+
+    /**
+     * Constructs a builder over the given primitives. All of them must have a finite bounding box.
+     * the built hierarchy does not depend on whether the build is serial or parallel.
+     *
+     * @param primitives The primitives to build the hierarchy over.
+     * @param pool       The pool to run the build in, or null for a serial build.
+     */
+    BvhBuilder(List<Intersectable> primitives, ForkJoinPool pool) {
+        int n = primitives.size();
+        this.primitives = primitives.toArray(new Intersectable[0]);
+        this.pool = pool;
+        bounds = new double[6 * n];
+        centroids = new double[3 * n];
+        order = new int[n];
+        if (pool == null || n < CHUNK_SIZE) {
+            for (int i = 0; i < n; i++)
+                readBounds(i);
+        } else {
+            // a parallel stream started from inside the pool runs on the pool's threads
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(this::readBounds)).join();
+        }
+    }
+
+    /**
+     * Constructs a serial builder over primitives that are not intersectables, such as the faces of a mesh,
+     * given only their bounds. the primitives of the builder are null, and its nodes refer to the primitives
+     * by their indices in the bounds array, through the order array.
+     *
+     * @param bounds The finite bounds of the primitives, six values per primitive (min x, y, z and max x, y, z).
+     */
+    BvhBuilder(double[] bounds) {
+        int n = bounds.length / 6;
+        this.primitives = null;
+        this.pool = null;
+        this.bounds = bounds;
+        centroids = new double[3 * n];
+        order = new int[n];
+        for (int i = 0; i < n; i++)
+            readCentroid(i);
+    }
+
+    /**
+     * Copies the bounds of a primitive into the bounds and centroids arrays.
+     *
+     * @param i The index of the primitive.
+     */
+    private void readBounds(int i) {
+        BoundingBox box = primitives[i].getBoundingBox();
+        bounds[6 * i] = box.getMinX();
+        bounds[6 * i + 1] = box.getMinY();
+        bounds[6 * i + 2] = box.getMinZ();
+        bounds[6 * i + 3] = box.getMaxX();
+        bounds[6 * i + 4] = box.getMaxY();
+        bounds[6 * i + 5] = box.getMaxZ();
+        readCentroid(i);
+    }
+
+    /**
+     * Calculates the centroid of the bounds of a primitive into the centroids array.
+     *
+     * @param i The index of the primitive.
+     */
+    private void readCentroid(int i) {
+        for (int a = 0; a < 3; a++)
+            centroids[3 * i + a] = (bounds[6 * i + a] + bounds[6 * i + 3 + a]) / 2;
+        order[i] = i;
+    }
+
+    /**
+     * Builds the hierarchy over all the primitives.
+     *
+     * @return The root node of the hierarchy.
+     */
+    Node build() {
+        BuildTask task = new BuildTask(0, order.length);
+        return pool == null ? task.compute() : pool.invoke(task);
+    }
+
+    /**
+     * The task of building the sub-hierarchy over a range of the order array.
+     * large sub-hierarchies fork the build of their left child when the build is parallel.
+     */
+    private final class BuildTask extends RecursiveTask<Node> {
+        /**
+         * The serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first index of the range.
+         */
+        private final int start;
+
+        /**
+         * The index after the last one of the range.
+         */
+        private final int end;
+
+        /**
+         * Constructs a new build task over a range.
+         *
+         * @param start The first index of the range.
+         * @param end   The index after the last one of the range.
+         */
+        BuildTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Node compute() {
+            int count = end - start;
+            double[] rangeBounds = new BoundsTask(start, end).compute();
+            Node node = new Node(Arrays.copyOf(rangeBounds, 6), start, count);
+            if (count <= MIN_LEAF_SIZE)
+                return node;
+
+            double[] centroidBox = Arrays.copyOfRange(rangeBounds, 6, 12);
+            Bins bins = new BinTask(start, end, centroidBox).compute();
+            int bestAxis = -1;
+            int bestSplit = 0;
+            double bestCost = Double.POSITIVE_INFINITY;
+
+            double[] rightAreas = new double[BINS];
+            int[] rightCounts = new int[BINS];
+            double[] box = new double[6];
+            for (int axis = 0; axis < 3; axis++) {
+                if (centroidBox[axis + 3] - centroidBox[axis] <= 0)
+                    continue;
+                int first = axis * BINS;
+
+                // sweep from the right to find the area and count right of every split plane
+                resetBox(box, 0);
+                int sum = 0;
+                for (int b = BINS - 1; b > 0; b--) {
+                    sum += bins.counts[first + b];
+                    growBox(box, 0, bins.bounds, 6 * (first + b));
+                    rightCounts[b] = sum;
+                    rightAreas[b] = area(box, 0);
+                }
+
+                // sweep from the left and evaluate the cost of splitting before every bin
+                resetBox(box, 0);
+                sum = 0;
+                for (int b = 0; b < BINS - 1; b++) {
+                    sum += bins.counts[first + b];
+                    growBox(box, 0, bins.bounds, 6 * (first + b));
+                    if (sum == 0 || rightCounts[b + 1] == 0)
+                        continue;
+                    double cost = area(box, 0) * sum + rightAreas[b + 1] * rightCounts[b + 1];
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestSplit = b + 1;
+                    }
+                }
+            }
+
+            // all the centroids coincide, so there is no way to split the node
+            if (bestAxis == -1)
+                return node;
+
+            double nodeArea = area(node.box, 0);
+            bestCost = TRAVERSAL_COST + (nodeArea > 0 ? bestCost / nodeArea : count) * INTERSECTION_COST;
+            if (bestCost >= count * INTERSECTION_COST && count <= MAX_LEAF_SIZE)
+                return node;
+
+            int mid = partition(start, end, bestAxis, bestSplit, centroidBox[bestAxis],
+                    centroidBox[bestAxis + 3] - centroidBox[bestAxis]);
+            BuildTask left = new BuildTask(start, mid);
+            BuildTask right = new BuildTask(mid, end);
+            if (pool != null && count >= SUBTREE_SIZE) {
+                left.fork();
+                node.right = right.compute();
+                node.left = left.join();
+            } else {
+                node.left = left.compute();
+                node.right = right.compute();
+            }
+            return node;
+        }
+    }
+
+    /**
+     * The task of calculating the bounds of a range (first six values)
+     * and the bounds of its centroids (last six values).
+     * large ranges are split into chunks when the build is parallel.
+     */
+    private final class BoundsTask extends RecursiveTask<double[]> {
+        /**
+         * The serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first index of the range.
+         */
+        private final int start;
+
+        /**
+         * The index after the last one of the range.
+         */
+        private final int end;
+
+        /**
+         * Constructs a new bounds task over a range.
+         *
+         * @param start The first index of the range.
+         * @param end   The index after the last one of the range.
+         */
+        BoundsTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (pool != null && end - start > CHUNK_SIZE) {
+                int mid = (start + end) >>> 1;
+                BoundsTask left = new BoundsTask(start, mid);
+                left.fork();
+                double[] result = new BoundsTask(mid, end).compute();
+                double[] leftResult = left.join();
+                growBox(result, 0, leftResult, 0);
+                growBox(result, 6, leftResult, 6);
+                return result;
+            }
+
+            double[] result = new double[12];
+            resetBox(result, 0);
+            resetBox(result, 6);
+            for (int i = start; i < end; i++) {
+                int p = order[i];
+                growBox(result, 0, bounds, 6 * p);
+                for (int a = 0; a < 3; a++) {
+                    double c = centroids[3 * p + a];
+                    if (c < result[6 + a]) result[6 + a] = c;
+                    if (c > result[9 + a]) result[9 + a] = c;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The centroid bins of a range along all three axes.
+     */
+    private static final class Bins {
+        /**
+         * The number of primitives in each bin, BINS values per axis.
+         */
+        final int[] counts = new int[3 * BINS];
+
+        /**
+         * The bounds of the primitives in each bin, six values per bin.
+         */
+        final double[] bounds = new double[18 * BINS];
+
+        /**
+         * Constructs empty bins.
+         */
+        Bins() {
+            for (int b = 0; b < 3 * BINS; b++)
+                resetBox(bounds, 6 * b);
+        }
+    }
+
+    /**
+     * The task of binning the centroids of a range along all three axes.
+     * large ranges are split into chunks when the build is parallel.
+     */
+    private final class BinTask extends RecursiveTask<Bins> {
+        /**
+         * The serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first index of the range.
+         */
+        private final int start;
+
+        /**
+         * The index after the last one of the range.
+         */
+        private final int end;
+
+        /**
+         * The bounds of the centroids of the whole range being binned.
+         */
+        private final double[] centroidBox;
+
+        /**
+         * Constructs a new binning task over a range.
+         *
+         * @param start       The first index of the range.
+         * @param end         The index after the last one of the range.
+         * @param centroidBox The bounds of the centroids of the whole range being binned.
+         */
+        BinTask(int start, int end, double[] centroidBox) {
+            this.start = start;
+            this.end = end;
+            this.centroidBox = centroidBox;
+        }
+
+        @Override
+        protected Bins compute() {
+            if (pool != null && end - start > CHUNK_SIZE) {
+                int mid = (start + end) >>> 1;
+                BinTask left = new BinTask(start, mid, centroidBox);
+                left.fork();
+                Bins result = new BinTask(mid, end, centroidBox).compute();
+                Bins leftResult = left.join();
+                for (int b = 0; b < 3 * BINS; b++) {
+                    result.counts[b] += leftResult.counts[b];
+                    growBox(result.bounds, 6 * b, leftResult.bounds, 6 * b);
+                }
+                return result;
+            }
+
+            Bins result = new Bins();
+            for (int axis = 0; axis < 3; axis++) {
+                double min = centroidBox[axis];
+                double extent = centroidBox[axis + 3] - min;
+                if (extent <= 0)
+                    continue;
+                for (int i = start; i < end; i++) {
+                    int p = order[i];
+                    int b = axis * BINS + binIndex(centroids[3 * p + axis], min, extent);
+                    result.counts[b]++;
+                    growBox(result.bounds, 6 * b, bounds, 6 * p);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Builds a linear hierarchy (LBVH) over all the primitives.
+     * <p>
+     * The primitives are sorted by the 63 bit Morton codes of their centroids, and every node is split
+     * where the highest bit that differs between its codes changes. This runs in linear time, but the
+     * hierarchy is usually of lower quality than the one of {@link #build()}.
+     *
+     * @return The root node of the hierarchy.
+     */
+    Node buildLinear() {
+        int n = order.length;
+        BoundsTask boundsTask = new BoundsTask(0, n);
+        double[] sceneBounds = pool == null ? boundsTask.compute() : pool.invoke(boundsTask);
+        long[] codes = new long[n];
+        int chunks = pool == null ? 1 : Math.max(1, Math.min(4 * pool.getParallelism(), n / CHUNK_SIZE));
+        int chunkSize = (n + chunks - 1) / chunks;
+        runChunks(chunks, c -> {
+            for (int i = c * chunkSize; i < Math.min(n, (c + 1) * chunkSize); i++)
+                codes[i] = mortonCode(order[i], sceneBounds);
+        });
+        radixSort(codes);
+
+        LinearBuildTask task = new LinearBuildTask(codes, 0, n);
+        return pool == null ? task.compute() : pool.invoke(task);
+    }
+
+    /**
+     * Calculates the Morton code of the centroid of a primitive within the bounds of the centroids.
+     *
+     * @param p           The primitive index.
+     * @param sceneBounds The bounds of all the primitives, with the bounds of their centroids in the last six values.
+     * @return The 63 bit Morton code.
+     */
+    private long mortonCode(int p, double[] sceneBounds) {
+        long code = 0;
+        for (int a = 0; a < 3; a++) {
+            double min = sceneBounds[6 + a];
+            double extent = sceneBounds[9 + a] - min;
+            long cell = extent > 0 ? (long) ((centroids[3 * p + a] - min) / extent * MORTON_CELLS) : 0;
+            code |= expandBits(Math.min(cell, MORTON_CELLS - 1)) << (2 - a);
+        }
+        return code;
+    }
+
+    /**
+     * Spreads the lower 21 bits of a number so that there are two zero bits between every two bits.
+     *
+     * @param v The number to spread.
+     * @return The spread bits.
+     */
+    private static long expandBits(long v) {
+        v &= 0x1fffffL;
+        v = (v | v << 32) & 0x1f00000000ffffL;
+        v = (v | v << 16) & 0x1f0000ff0000ffL;
+        v = (v | v << 8) & 0x100f00f00f00f00fL;
+        v = (v | v << 4) & 0x10c30c30c30c30c3L;
+        v = (v | v << 2) & 0x1249249249249249L;
+        return v;
+    }
+
+    /**
+     * Sorts the Morton codes, and the order array along with them, with a stable LSD radix sort.
+     * in a parallel build, every pass counts and scatters the keys in parallel chunks.
+     *
+     * @param codes The Morton codes, one per entry of the order array.
+     */
+    private void radixSort(long[] codes) {
+        int n = codes.length;
+        int chunks = pool == null ? 1 : Math.max(1, Math.min(4 * pool.getParallelism(), n / CHUNK_SIZE));
+        int chunkSize = (n + chunks - 1) / chunks;
+        long[] keys = codes;
+        int[] values = order;
+        long[] keysBuffer = new long[n];
+        int[] valuesBuffer = new int[n];
+        int[][] counts = new int[chunks][RADIX];
+
+        for (int shift = 0; shift < 64; shift += RADIX_BITS) {
+            int passShift = shift;
+            long[] passKeys = keys;
+            runChunks(chunks, c -> {
+                Arrays.fill(counts[c], 0);
+                for (int i = c * chunkSize; i < Math.min(n, (c + 1) * chunkSize); i++)
+                    counts[c][(int) (passKeys[i] >>> passShift) & (RADIX - 1)]++;
+            });
+
+            // turn the counts into the first output index of every digit in every chunk
+            int offset = 0;
+            boolean sorted = false;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int c = 0; c < chunks; c++) {
+                    int count = counts[c][digit];
+                    if (count == n)
+                        sorted = true;
+                    counts[c][digit] = offset;
+                    offset += count;
+                }
+            }
+            // all the keys have the same digit, so the pass would not change anything
+            if (sorted)
+                continue;
+
+            long[] outKeys = keysBuffer;
+            int[] inValues = values, outValues = valuesBuffer;
+            runChunks(chunks, c -> {
+                int[] next = counts[c];
+                for (int i = c * chunkSize; i < Math.min(n, (c + 1) * chunkSize); i++) {
+                    int index = next[(int) (passKeys[i] >>> passShift) & (RADIX - 1)]++;
+                    outKeys[index] = passKeys[i];
+                    outValues[index] = inValues[i];
+                }
+            });
+            keysBuffer = keys;
+            valuesBuffer = values;
+            keys = outKeys;
+            values = outValues;
+        }
+
+        if (keys != codes) {
+            System.arraycopy(keys, 0, codes, 0, n);
+            System.arraycopy(values, 0, order, 0, n);
+        }
+    }
+
+    /**
+     * Runs an action for every chunk, in the pool when the build is parallel.
+     *
+     * @param chunks The number of chunks.
+     * @param action The action to run for a chunk index.
+     */
+    private void runChunks(int chunks, IntConsumer action) {
+        if (pool == null || chunks == 1) {
+            for (int c = 0; c < chunks; c++)
+                action.accept(c);
+        } else {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(action)).join();
+        }
+    }
+
+    /**
+     * The task of building the linear sub-hierarchy over a range of sorted Morton codes.
+     * node bounds are merged from the children, so every node costs constant time.
+     */
+    private final class LinearBuildTask extends RecursiveTask<Node> {
+        /**
+         * The serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The sorted Morton codes.
+         */
+        private final long[] codes;
+
+        /**
+         * The first index of the range.
+         */
+        private final int start;
+
+        /**
+         * The index after the last one of the range.
+         */
+        private final int end;
+
+        /**
+         * Constructs a new linear build task over a range.
+         *
+         * @param codes The sorted Morton codes.
+         * @param start The first index of the range.
+         * @param end   The index after the last one of the range.
+         */
+        LinearBuildTask(long[] codes, int start, int end) {
+            this.codes = codes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Node compute() {
+            int count = end - start;
+            if (count <= LINEAR_LEAF_SIZE) {
+                double[] box = new double[6];
+                resetBox(box, 0);
+                for (int i = start; i < end; i++)
+                    growBox(box, 0, bounds, 6 * order[i]);
+                return new Node(box, start, count);
+            }
+
+            long first = codes[start];
+            long last = codes[end - 1];
+            int mid;
+            if (first == last) {
+                // identical codes can not be told apart, so the range is simply halved
+                mid = (start + end) >>> 1;
+            } else {
+                // binary search for the first code that has the highest differing bit set
+                long bit = Long.highestOneBit(first ^ last);
+                int low = start, high = end - 1;
+                while (low < high) {
+                    int m = (low + high) >>> 1;
+                    if ((codes[m] & bit) != 0)
+                        high = m;
+                    else
+                        low = m + 1;
+                }
+                mid = low;
+            }
+
+            LinearBuildTask left = new LinearBuildTask(codes, start, mid);
+            LinearBuildTask right = new LinearBuildTask(codes, mid, end);
+            Node leftNode, rightNode;
+            if (pool != null && count >= SUBTREE_SIZE) {
+                left.fork();
+                rightNode = right.compute();
+                leftNode = left.join();
+            } else {
+                leftNode = left.compute();
+                rightNode = right.compute();
+            }
+            double[] box = Arrays.copyOf(leftNode.box, 6);
+            growBox(box, 0, rightNode.box, 0);
+            Node node = new Node(box, start, count);
+            node.left = leftNode;
+            node.right = rightNode;
+            return node;
+        }
+    }
+
+    /**
+     * Reorders a range so that the primitives in the bins before the split bin come first.
+     *
+     * @param start  The first index of the range.
+     * @param end    The index after the last one of the range.
+     * @param axis   The split axis.
+     * @param split  The first bin of the right side.
+     * @param min    The minimum centroid of the range along the axis.
+     * @param extent The extent of the range's centroids along the axis.
+     * @return The first index of the right side.
+     */
+    private int partition(int start, int end, int axis, int split, double min, double extent) {
+        int i = start;
+        int j = end - 1;
+        while (i <= j) {
+            if (binIndex(centroids[3 * order[i] + axis], min, extent) < split)
+                i++;
+            else {
+                int temp = order[i];
+                order[i] = order[j];
+                order[j--] = temp;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Creates a bounding box object from the bounds of a node.
+     *
+     * @param node The node.
+     * @return The bounding box of the node.
+     */
+    static BoundingBox toBoundingBox(Node node) {
+        double[] box = node.box;
+        return new BoundingBox(box[0], box[1], box[2], box[3], box[4], box[5]);
+    }
+
+    /**
+     * Calculates the bin of a centroid coordinate.
+     *
+     * @param c      The centroid coordinate.
+     * @param min    The minimum centroid coordinate.
+     * @param extent The extent of the centroid coordinates.
+     * @return The bin index.
+     */
+    private static int binIndex(double c, double min, double extent) {
+        int b = (int) (BINS * ((c - min) / extent));
+        return b >= BINS ? BINS - 1 : b;
+    }
+
+    /**
+     * Resets the bounds at an offset to an empty box.
+     *
+     * @param box    The bounds array.
+     * @param offset The offset of the box.
+     */
+    static void resetBox(double[] box, int offset) {
+        for (int a = 0; a < 3; a++) {
+            box[offset + a] = Double.POSITIVE_INFINITY;
+            box[offset + a + 3] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Grows the bounds at an offset to include other bounds.
+     *
+     * @param box         The bounds array to grow.
+     * @param offset      The offset of the box to grow.
+     * @param other       The bounds array to include.
+     * @param otherOffset The offset of the box to include.
+     */
+    static void growBox(double[] box, int offset, double[] other, int otherOffset) {
+        for (int a = 0; a < 3; a++) {
+            if (other[otherOffset + a] < box[offset + a]) box[offset + a] = other[otherOffset + a];
+            if (other[otherOffset + a + 3] > box[offset + a + 3]) box[offset + a + 3] = other[otherOffset + a + 3];
+        }
+    }
+
+    /**
+     * Calculates the surface area of the bounds at an offset. Empty bounds have zero area.
+     *
+     * @param box    The bounds array.
+     * @param offset The offset of the box.
+     * @return The surface area of the box.
+     */
+    static double area(double[] box, int offset) {
+        double dx = box[offset + 3] - box[offset];
+        double dy = box[offset + 4] - box[offset + 1];
+        double dz = box[offset + 5] - box[offset + 2];
+        return dx < 0 || dy < 0 || dz < 0 ? 0 : 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
@@ -0,0 +1,187 @@
+package geometries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The BvhCache class stores built trees in files, so a scene that does not change between runs is not rebuilt.
+ * <p>
+ * A tree depends only on the bounding boxes of its primitives, in their order, and on the builder. so the file of
+ * a tree is named by a hash of those, and holds the offsets and the bounds of the nodes and, for every primitive
+ * of the tree, its index in the primitives of the scene. Files are loaded through a memory-mapped channel.
+ */
+final class BvhCache {
+    /**
+     * The first bytes of a tree file.
+     */
+    private static final int MAGIC = 0x42564831; // "BVH1"
+
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header: magic, version and the numbers of scene primitives, nodes and tree primitives.
+     */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * The extension of tree files.
+     */
+    static final String EXTENSION = ".bvh";
+
+    /**
+     * The logger of cache failures - the cache never fails a build, it is rebuilt instead.
+     */
+    private static final Logger logger = Logger.getLogger("BvhCache");
+
+    /**
+     * A utility class is not instantiated.
+     */
+    private BvhCache() {
+    }
+
+    /**
+     * Calculates the name of the file of a tree: a hash of the bounding boxes of the primitives and of the builder.
+     *
+     * @param primitives The primitives of the scene.
+     * @param mode       The builder of the tree.
+     * @return The file name.
+     */
+    static String fileName(List<Intersectable> primitives, Geometries.BuildMode mode) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.putInt(VERSION).putInt(mode.ordinal()).putInt(primitives.size());
+        double[] box = new double[6];
+        for (Intersectable primitive : primitives) {
+            if (buffer.remaining() < 6 * Double.BYTES) {
+                digest.update(buffer.flip());
+                buffer.clear();
+            }
+            FlatBvh.setBounds(box, 0, primitive.getBoundingBox());
+            for (double bound : box)
+                buffer.putDouble(bound);
+        }
+        digest.update(buffer.flip());
+        StringBuilder name = new StringBuilder();
+        for (byte b : digest.digest())
+            name.append(String.format("%02x", b));
+        return name.append(EXTENSION).toString();
+    }
+
+    /**
+     * Loads a tree of the primitives of a scene from a file.
+     *
+     * @param file       The file of the tree.
+     * @param primitives The primitives of the scene.
+     * @return The tree, or null if there is no file or it is not valid for the primitives.
+     */
+    static FlatBvh load(Path file, List<Intersectable> primitives) {
+        if (!Files.isRegularFile(file))
+            return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getInt() != primitives.size())
+                throw new IOException("Not a tree of the scene");
+            int nodeCount = buffer.getInt();
+            int primitiveCount = buffer.getInt();
+            long size = HEADER_SIZE + 4L * Integer.BYTES * nodeCount + 6L * Double.BYTES * nodeCount
+                    + (long) Integer.BYTES * primitiveCount;
+            if (nodeCount < 1 || primitiveCount < 0 || size != channel.size())
+                throw new IOException("Truncated tree file");
+
+            int[] nodes = new int[4 * nodeCount];
+            buffer.asIntBuffer().get(nodes);
+            buffer.position(buffer.position() + nodes.length * Integer.BYTES);
+            double[] bounds = new double[6 * nodeCount];
+            buffer.asDoubleBuffer().get(bounds);
+            buffer.position(buffer.position() + bounds.length * Double.BYTES);
+            int[] order = new int[primitiveCount];
+            buffer.asIntBuffer().get(order);
+
+            Intersectable[] treePrimitives = new Intersectable[primitiveCount];
+            for (int i = 0; i < primitiveCount; i++) {
+                if (order[i] < 0 || order[i] >= primitives.size())
+                    throw new IOException("Corrupt tree file");
+                treePrimitives[i] = primitives.get(order[i]);
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                if (nodes[4 * i] < 0 || nodes[4 * i + 1] < 0 || nodes[4 * i] + nodes[4 * i + 1] > primitiveCount
+                        || nodes[4 * i + 2] <= i && nodes[4 * i + 3] > 0 || nodes[4 * i + 3] < 0
+                        || nodes[4 * i + 2] + nodes[4 * i + 3] > nodeCount)
+                    throw new IOException("Corrupt tree file");
+            }
+            return new FlatBvh(nodes, bounds, treePrimitives, null);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Cannot load the tree file " + file + ", the tree is rebuilt", e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves a tree of the primitives of a scene to a file.
+     * the file is written next to its place and then moved, so a file is never read while it is written.
+     *
+     * @param file       The file of the tree.
+     * @param tree       The tree, with exact bounds.
+     * @param primitives The primitives of the scene.
+     */
+    static void save(Path file, FlatBvh tree, List<Intersectable> primitives) {
+        Map<Intersectable, Integer> indices = new IdentityHashMap<>(2 * primitives.size());
+        for (int i = 0; i < primitives.size(); i++)
+            indices.put(primitives.get(i), i);
+        int nodeCount = tree.nodes.length / 4;
+        double[] bounds = tree.getBounds();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 4 * Integer.BYTES * nodeCount
+                + 6 * Double.BYTES * nodeCount + Integer.BYTES * tree.primitives.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(primitives.size()).putInt(nodeCount).putInt(tree.primitives.length);
+        buffer.asIntBuffer().put(tree.nodes);
+        buffer.position(buffer.position() + tree.nodes.length * Integer.BYTES);
+        buffer.asDoubleBuffer().put(bounds);
+        buffer.position(buffer.position() + bounds.length * Double.BYTES);
+        for (Intersectable primitive : tree.primitives) {
+            // the members of nested geometries are primitives of the tree but not of the scene, and their
+            // bounding boxes are not a part of the file name, so such trees are not saved
+            Integer index = indices.get(primitive);
+            if (index == null)
+                return;
+            buffer.putInt(index);
+        }
+        buffer.flip();
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Cannot save the tree file " + file, e);
+        }
+    }
+}
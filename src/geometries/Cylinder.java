@@ -5,8 +5,7 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.List;
-
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
@@ -30,16 +29,31 @@ public class Cylinder extends Tube {
         super(r, axisRay);
         this.height = height;
 
-        Point center = axisRay.getP0();
+        // the bases are discs around the head of the axis ray and around the point at the height along the axis,
+        // and a disc of a unit normal a reaches r * sqrt(1 - a_i^2) from its center along the axis i
+        Point base = axisRay.getP0(), top = axisRay.getPoint(height);
+        Vector axis = axisRay.getDir();
+        double extentX = radius * Math.sqrt(Math.max(0, 1 - axis.getX() * axis.getX()));
+        double extentY = radius * Math.sqrt(Math.max(0, 1 - axis.getY() * axis.getY()));
+        double extentZ = radius * Math.sqrt(Math.max(0, 1 - axis.getZ() * axis.getZ()));
 
-        double minX = center.getX() - radius;
-        double minY = center.getY() - (height / 2.0);
-        double minZ = center.getZ() - radius;
-        double maxX = center.getX() + radius;
-        double maxY = center.getY() + (height / 2.0);
-        double maxZ = center.getZ() + radius;
+        double minX = Math.min(base.getX(), top.getX()) - extentX;
+        double minY = Math.min(base.getY(), top.getY()) - extentY;
+        double minZ = Math.min(base.getZ(), top.getZ()) - extentZ;
+        double maxX = Math.max(base.getX(), top.getX()) + extentX;
+        double maxY = Math.max(base.getY(), top.getY()) + extentY;
+        double maxZ = Math.max(base.getZ(), top.getZ()) + extentZ;
 
-        this.boundingBox = new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+        this.boundingBox = new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Returns the height of the Cylinder object.
+     *
+     * @return The height of the Cylinder object.
+     */
+    public double getHeight() {
+        return height;
     }
 
     /**
@@ -72,8 +86,46 @@ public class Cylinder extends Tube {
                 ", radius= " + radius;
     }
 
+    /**
+     * Calculates the distance along a ray to its intersection with the plane of a base of the cylinder, if it is
+     * strictly inside the base.
+     *
+     * @param ray        The ray to intersect with the base.
+     * @param baseHeight The height of the base along the axis: 0 or the height of the cylinder.
+     * @return The distance to the intersection, or positive infinity if there is none.
+     */
+    private double intersectBase(Ray ray, double baseHeight) {
+        Vector dir = ray.getDir(), axis = axisRay.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ax = axis.getX(), ay = axis.getY(), az = axis.getZ();
+        double da = dx * ax + dy * ay + dz * az;
+        if (isZero(da))
+            return Double.POSITIVE_INFINITY;
+        // the offset of the head of the ray from the center of the base
+        double wx = ray.getOriginX() - axisRay.getOriginX() - baseHeight * ax;
+        double wy = ray.getOriginY() - axisRay.getOriginY() - baseHeight * ay;
+        double wz = ray.getOriginZ() - axisRay.getOriginZ() - baseHeight * az;
+        double t = alignZero(-(wx * ax + wy * ay + wz * az) / da);
+        if (t <= 0)
+            return Double.POSITIVE_INFINITY;
+        double px = wx + t * dx, py = wy + t * dy, pz = wz + t * dz;
+        return alignZero(px * px + py * py + pz * pz - radiusSquared) < 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calculates the distance along a ray to its first intersection with the cylinder beyond the given distance.
+     *
+     * @param ray         The ray to intersect with the cylinder.
+     * @param minDistance The distance before which (and at which) intersections are ignored.
+     * @return The distance to the intersection, or positive infinity if there is none.
+     */
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        return null;
+    public double intersect(Ray ray, double minDistance) {
+        double t = intersect(ray, minDistance, 0, height);
+        double bottom = intersectBase(ray, 0);
+        if (bottom > minDistance && bottom < t)
+            t = bottom;
+        double top = intersectBase(ray, height);
+        return top > minDistance && top < t ? top : t;
     }
 }
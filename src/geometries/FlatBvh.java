@@ -0,0 +1,807 @@
+package geometries;
+
+import primitives.BoundingBox;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import geometries.Intersectable.GeoPoint;
+
+/**
+ * The FlatBvh class is the compiled form of a tree of geometries.
+ * <p>
+ * The nodes are stored in primitive arrays instead of nested objects: the bounds of node i are at
+ * {@code bounds[6i..6i+5]}, and {@code nodes[4i..4i+3]} hold the first index and number of its primitives
+ * and the first index and number of its child nodes. The children of a node, and the primitives of a node,
+ * are contiguous. Traversal uses an explicit stack of node indices and allocates nothing for nodes it visits.
+ * <p>
+ * When primitives move, their nodes can be refitted in place instead of rebuilding the tree,
+ * while the SAH cost of the tree is kept up to date.
+ * <p>
+ * For very large trees the bounds can be made compact: the bounds of every node except the root are stored as
+ * 8 or 16 bit integers relative to the (decoded) bounds of its parent, rounded outwards so that a decoded box
+ * always contains the exact one, and no intersection is lost. The traversal decodes the bounds of the children
+ * of a node from the bounds of the node, which it keeps on a stack of boxes.
+ */
+class FlatBvh {
+    /**
+     * The bounds of the nodes, six values per node (min x, y, z and max x, y, z).
+     * unbounded nodes have infinite bounds. null while the bounds are compact.
+     */
+    private double[] bounds;
+
+    /**
+     * The number of bits of each compact bound (8 or 16), 0 if the bounds are not compact.
+     */
+    private int bits;
+
+    /**
+     * The 8 bit compact bounds, six values per node relative to the bounds of the parent, or null.
+     */
+    private byte[] bounds8;
+
+    /**
+     * The 16 bit compact bounds, six values per node relative to the bounds of the parent, or null.
+     */
+    private short[] bounds16;
+
+    /**
+     * The exact bounds of the root.
+     */
+    private final double[] rootBounds = new double[6];
+
+    /**
+     * The box the bounds of the children of the root are relative to - the root may be unbounded.
+     */
+    private final double[] rootFrame = new double[6];
+
+    /**
+     * The offsets of the nodes, four values per node:
+     * first primitive, number of primitives, first child node and number of child nodes.
+     */
+    final int[] nodes;
+
+    /**
+     * The primitives, ordered so the primitives of every node are contiguous.
+     */
+    final Intersectable[] primitives;
+
+    /**
+     * The Geometries object each node was compiled from, null once they are released by making the bounds compact.
+     */
+    private Geometries[] groups;
+
+    /**
+     * The parent of each node, -1 for the root.
+     */
+    final int[] parents;
+
+    /**
+     * The node of each primitive.
+     */
+    final int[] primitiveNodes;
+
+    /**
+     * The traversal stack of each rendering thread.
+     */
+    private final ThreadLocal<int[]> stacks;
+
+    /**
+     * The entry distances of the nodes in the traversal stack of each rendering thread.
+     */
+    private final ThreadLocal<double[]> distanceStacks;
+
+    /**
+     * The decoded bounds of the nodes in the traversal stack of each rendering thread, for compact bounds,
+     * followed by two scratch boxes: the bounds of the current node and of the child being decoded.
+     */
+    private final ThreadLocal<double[]> boxStacks;
+
+    /**
+     * The offset of the scratch box holding the bounds of the node the traversal is in.
+     */
+    private final int frameOffset;
+
+    /**
+     * The offset of the scratch box holding the bounds of the child being decoded.
+     */
+    private final int childOffset;
+
+    /**
+     * The node whose surface area the SAH cost is normalized by - the largest bounded node.
+     */
+    private int costRoot = -1;
+
+    /**
+     * The sum of the SAH costs of all the nodes, each weighted by its surface area.
+     */
+    private double weightedCost;
+
+    /**
+     * The SAH cost of the tree, as of the build or the last refit.
+     */
+    private double cost;
+
+    /**
+     * The index of each primitive in the primitives array, created on the first change.
+     */
+    private Map<Intersectable, Integer> slots;
+
+    /**
+     * The nodes whose bounds must be recalculated by the next refit.
+     */
+    private final boolean[] dirty;
+
+    /**
+     * The indices of the dirty nodes.
+     */
+    private int[] dirtyNodes = new int[16];
+
+    /**
+     * The number of dirty nodes.
+     */
+    private int dirtyCount;
+
+    /**
+     * Compiles the tree of the given geometries.
+     * every nested Geometries object becomes a node, and every other intersectable becomes a primitive.
+     *
+     * @param root The root of the tree.
+     * @return The compiled tree.
+     */
+    static FlatBvh compile(Geometries root) {
+        List<Geometries> order = new ArrayList<>();
+        List<Intersectable> prims = new ArrayList<>();
+        int[] offsets = new int[64];
+        order.add(root);
+        // breadth first, so the children of every node are appended next to each other
+        for (int i = 0; i < order.size(); i++) {
+            Geometries node = order.get(i);
+            if (4 * i + 4 > offsets.length)
+                offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+            offsets[4 * i] = prims.size();
+            offsets[4 * i + 2] = order.size();
+            for (Intersectable geo : node.getGeometries()) {
+                if (geo instanceof Geometries child)
+                    order.add(child);
+                else
+                    prims.add(geo);
+            }
+            offsets[4 * i + 1] = prims.size() - offsets[4 * i];
+            offsets[4 * i + 3] = order.size() - offsets[4 * i + 2];
+        }
+
+        int count = order.size();
+        double[] bounds = new double[6 * count];
+        for (int i = 0; i < count; i++)
+            setBounds(bounds, 6 * i, order.get(i).getBoundingBox());
+        return new FlatBvh(Arrays.copyOf(offsets, 4 * count), bounds, prims.toArray(new Intersectable[0]),
+                order.toArray(new Geometries[0]));
+    }
+
+    /**
+     * Constructs a tree of its arrays, as compiled or as loaded from a file.
+     *
+     * @param nodes      The offsets of the nodes, four values per node.
+     * @param bounds     The bounds of the nodes, six values per node.
+     * @param primitives The primitives, in the order of the nodes.
+     * @param groups     The Geometries object of each node, or null if there are none.
+     */
+    FlatBvh(int[] nodes, double[] bounds, Intersectable[] primitives, Geometries[] groups) {
+        int count = nodes.length / 4;
+        this.nodes = nodes;
+        this.bounds = bounds;
+        this.primitives = primitives;
+        this.groups = groups;
+        parents = new int[count];
+        primitiveNodes = new int[primitives.length];
+        dirty = new boolean[count];
+        parents[0] = -1;
+        int stackSize = 1;
+        double maxArea = -1;
+        for (int i = 0; i < count; i++) {
+            stackSize += nodes[4 * i + 3];
+            for (int c = nodes[4 * i + 2]; c < nodes[4 * i + 2] + nodes[4 * i + 3]; c++)
+                parents[c] = i;
+            for (int k = nodes[4 * i]; k < nodes[4 * i] + nodes[4 * i + 1]; k++)
+                primitiveNodes[k] = i;
+            double area = BvhBuilder.area(bounds, 6 * i);
+            if (Double.isFinite(area) && area > maxArea) {
+                maxArea = area;
+                costRoot = i;
+            }
+            weightedCost += nodeCost(i);
+        }
+        cost = computeCost();
+        int maxStack = stackSize;
+        stacks = ThreadLocal.withInitial(() -> new int[maxStack]);
+        distanceStacks = ThreadLocal.withInitial(() -> new double[maxStack]);
+        frameOffset = 6 * maxStack;
+        childOffset = 6 * maxStack + 6;
+        boxStacks = ThreadLocal.withInitial(() -> new double[6 * maxStack + 12]);
+    }
+
+    /**
+     * getter for the exact bounds of the nodes
+     *
+     * @return the bounds, six values per node, or null if the bounds are compact
+     */
+    double[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Copies the bounds of a bounding box into an array, infinite bounds are used for a null bounding box.
+     *
+     * @param bounds The bounds array.
+     * @param offset The offset of the box in the array.
+     * @param box    The bounding box.
+     */
+    static void setBounds(double[] bounds, int offset, BoundingBox box) {
+        if (box == null) {
+            for (int a = 0; a < 3; a++) {
+                bounds[offset + a] = Double.NEGATIVE_INFINITY;
+                bounds[offset + a + 3] = Double.POSITIVE_INFINITY;
+            }
+            return;
+        }
+        bounds[offset] = box.getMinX();
+        bounds[offset + 1] = box.getMinY();
+        bounds[offset + 2] = box.getMinZ();
+        bounds[offset + 3] = box.getMaxX();
+        bounds[offset + 4] = box.getMaxY();
+        bounds[offset + 5] = box.getMaxZ();
+    }
+
+    /**
+     * Calculates the SAH cost of a node weighted by its surface area.
+     * the primitives of a node are intersected whenever the node is visited, and unbounded nodes are ignored.
+     *
+     * @param node The node index.
+     * @return The area-weighted cost of the node.
+     */
+    private double nodeCost(int node) {
+        double area = BvhBuilder.area(bounds, 6 * node);
+        if (!Double.isFinite(area))
+            return 0;
+        return area * ((nodes[4 * node + 3] > 0 ? BvhBuilder.TRAVERSAL_COST : 0)
+                + nodes[4 * node + 1] * BvhBuilder.INTERSECTION_COST);
+    }
+
+    /**
+     * Returns the SAH cost of the tree: the expected cost of intersecting a ray that hits the tree,
+     * in units of primitive intersections.
+     *
+     * @return The SAH cost of the tree.
+     */
+    double getCost() {
+        return cost;
+    }
+
+    /**
+     * Calculates the SAH cost of the tree from the bounds of its nodes.
+     *
+     * @return The SAH cost of the tree.
+     */
+    private double computeCost() {
+        if (costRoot == -1)
+            return primitives.length * BvhBuilder.INTERSECTION_COST;
+        double area = BvhBuilder.area(bounds, 6 * costRoot);
+        return area > 0 ? weightedCost / area : nodes[4 * costRoot + 1] * BvhBuilder.INTERSECTION_COST;
+    }
+
+    /**
+     * Finds the index of a primitive in the primitives array.
+     *
+     * @param geometry The primitive.
+     * @return The index of the primitive.
+     * @throws IllegalArgumentException if the primitive is not in the tree
+     */
+    private int slotOf(Intersectable geometry) {
+        if (slots == null) {
+            slots = new IdentityHashMap<>(2 * primitives.length);
+            for (int i = 0; i < primitives.length; i++)
+                slots.put(primitives[i], i);
+        }
+        Integer slot = slots.get(geometry);
+        if (slot == null)
+            throw new IllegalArgumentException("The geometry is not a part of the tree");
+        return slot;
+    }
+
+    /**
+     * Replaces a primitive with another one and marks its node for the next refit.
+     *
+     * @param oldGeometry The primitive to replace.
+     * @param newGeometry The primitive to put in its place.
+     * @return The index of the primitive in the primitives array.
+     */
+    int replace(Intersectable oldGeometry, Intersectable newGeometry) {
+        int slot = slotOf(oldGeometry);
+        primitives[slot] = newGeometry;
+        slots.remove(oldGeometry);
+        slots.put(newGeometry, slot);
+        if (groups != null) {
+            List<Intersectable> members = groups[primitiveNodes[slot]].getGeometries();
+            for (int i = 0; i < members.size(); i++) {
+                if (members.get(i) == oldGeometry) {
+                    members.set(i, newGeometry);
+                    break;
+                }
+            }
+        }
+        markDirty(primitiveNodes[slot]);
+        return slot;
+    }
+
+    /**
+     * Marks the node of a primitive whose bounding box has changed for the next refit.
+     *
+     * @param geometry The primitive.
+     */
+    void update(Intersectable geometry) {
+        markDirty(primitiveNodes[slotOf(geometry)]);
+    }
+
+    /**
+     * Marks a node and all its ancestors for the next refit.
+     *
+     * @param node The node index.
+     */
+    private void markDirty(int node) {
+        for (; node != -1 && !dirty[node]; node = parents[node]) {
+            dirty[node] = true;
+            if (dirtyCount == dirtyNodes.length)
+                dirtyNodes = Arrays.copyOf(dirtyNodes, 2 * dirtyCount);
+            dirtyNodes[dirtyCount++] = node;
+        }
+    }
+
+    /**
+     * Recalculates the bounds of the dirty nodes from their primitives and children, bottom-up,
+     * and updates the SAH cost and the bounding boxes of the Geometries objects of the nodes.
+     * the work is proportional to the number of dirty nodes, unless the bounds are compact: then all the
+     * bounds are decoded before and encoded again after, since the bounds of the children of a refitted node are
+     * relative to its bounds.
+     */
+    void refit() {
+        int compactBits = bits;
+        if (compactBits != 0)
+            expand();
+        // children always come after their parents, so descending order is bottom-up
+        Arrays.sort(dirtyNodes, 0, dirtyCount);
+        double[] box = new double[6];
+        for (int d = dirtyCount - 1; d >= 0; d--) {
+            int node = dirtyNodes[d];
+            dirty[node] = false;
+            BvhBuilder.resetBox(box, 0);
+            int first = nodes[4 * node];
+            for (int i = first; i < first + nodes[4 * node + 1]; i++) {
+                BoundingBox primitiveBox = primitives[i].getBoundingBox();
+                if (primitiveBox == null) {
+                    setBounds(box, 0, null);
+                    break;
+                }
+                growBox(box, primitiveBox);
+            }
+            int firstChild = nodes[4 * node + 2];
+            for (int c = firstChild; c < firstChild + nodes[4 * node + 3]; c++)
+                BvhBuilder.growBox(box, 0, bounds, 6 * c);
+
+            weightedCost -= nodeCost(node);
+            System.arraycopy(box, 0, bounds, 6 * node, 6);
+            weightedCost += nodeCost(node);
+            if (groups != null)
+                groups[node].boundingBox = Double.isFinite(BvhBuilder.area(box, 0))
+                        ? new BoundingBox(box[0], box[1], box[2], box[3], box[4], box[5])
+                        : null;
+        }
+        dirtyCount = 0;
+        cost = computeCost();
+        if (compactBits != 0)
+            compact(compactBits);
+    }
+
+    /**
+     * Makes the bounds compact: encodes the bounds of every node except the root in the given number of bits,
+     * relative to the bounds of its parent, and releases the exact bounds and the Geometries objects of the nodes.
+     * the bounds stay exact if a node other than the root is unbounded, since it cannot be encoded.
+     *
+     * @param compactBits The number of bits of each bound, 8 or 16.
+     * @return true if the bounds were made compact, false otherwise
+     */
+    boolean compact(int compactBits) {
+        int count = parents.length;
+        System.arraycopy(bounds, 0, rootBounds, 0, 6);
+        BvhBuilder.resetBox(rootFrame, 0);
+        for (int c = nodes[2]; c < nodes[2] + nodes[3]; c++)
+            BvhBuilder.growBox(rootFrame, 0, bounds, 6 * c);
+        for (int i = 1; i < count; i++) {
+            if (!Double.isFinite(BvhBuilder.area(bounds, 6 * i)))
+                return false;
+        }
+
+        int levels = (1 << compactBits) - 1;
+        byte[] encoded8 = compactBits == 8 ? new byte[6 * count] : null;
+        short[] encoded16 = compactBits == 8 ? null : new short[6 * count];
+        // the children are encoded relative to the decoded bounds of their parent, which contain the exact ones
+        double[] decoded = new double[6 * count];
+        System.arraycopy(rootFrame, 0, decoded, 0, 6);
+        for (int i = 1; i < count; i++) {
+            int frame = 6 * parents[i];
+            for (int a = 0; a < 6; a++) {
+                double min = decoded[frame + a % 3];
+                double max = decoded[frame + a % 3 + 3];
+                int q = a < 3 ? encodeMin(bounds[6 * i + a], min, max, levels)
+                        : encodeMax(bounds[6 * i + a], min, max, levels);
+                if (encoded8 != null)
+                    encoded8[6 * i + a] = (byte) q;
+                else
+                    encoded16[6 * i + a] = (short) q;
+                decoded[6 * i + a] = decode(q, min, max, levels);
+            }
+        }
+
+        bits = compactBits;
+        bounds8 = encoded8;
+        bounds16 = encoded16;
+        bounds = null;
+        groups = null;
+        return true;
+    }
+
+    /**
+     * Decodes the compact bounds of all the nodes into exact bounds, so they can be changed.
+     */
+    private void expand() {
+        int count = parents.length;
+        double[] decoded = new double[6 * count];
+        for (int i = 1; i < count; i++)
+            decodeBounds(i, parents[i] == 0 ? rootFrame : decoded, parents[i] == 0 ? 0 : 6 * parents[i], decoded, 6 * i);
+        System.arraycopy(rootBounds, 0, decoded, 0, 6);
+        bounds = decoded;
+        bits = 0;
+        bounds8 = null;
+        bounds16 = null;
+    }
+
+    /**
+     * Encodes a minimum bound relative to the bounds of the parent, rounding down.
+     *
+     * @param value  The bound.
+     * @param min    The minimum bound of the parent.
+     * @param max    The maximum bound of the parent.
+     * @param levels The largest encoded value.
+     * @return The largest encoded value that decodes to at most the bound.
+     */
+    private static int encodeMin(double value, double min, double max, int levels) {
+        double step = (max - min) / levels;
+        if (!(step > 0))
+            return 0;
+        int q = (int) Math.max(0, Math.min(levels, Math.floor((value - min) / step)));
+        while (q > 0 && decode(q, min, max, levels) > value)
+            q--;
+        return q;
+    }
+
+    /**
+     * Encodes a maximum bound relative to the bounds of the parent, rounding up.
+     *
+     * @param value  The bound.
+     * @param min    The minimum bound of the parent.
+     * @param max    The maximum bound of the parent.
+     * @param levels The largest encoded value.
+     * @return The smallest encoded value that decodes to at least the bound.
+     */
+    private static int encodeMax(double value, double min, double max, int levels) {
+        double step = (max - min) / levels;
+        if (!(step > 0))
+            return levels;
+        int q = (int) Math.max(0, Math.min(levels, Math.ceil((value - min) / step)));
+        while (q < levels && decode(q, min, max, levels) < value)
+            q++;
+        return q;
+    }
+
+    /**
+     * Decodes a bound relative to the bounds of the parent. the ends decode exactly to the bounds of the parent.
+     *
+     * @param q      The encoded bound.
+     * @param min    The minimum bound of the parent.
+     * @param max    The maximum bound of the parent.
+     * @param levels The largest encoded value.
+     * @return The decoded bound.
+     */
+    private static double decode(int q, double min, double max, int levels) {
+        return q == 0 ? min : (q == levels ? max : min + q * ((max - min) / levels));
+    }
+
+    /**
+     * Decodes the compact bounds of a node relative to the bounds of its parent.
+     *
+     * @param node        The node index.
+     * @param frame       The array of the bounds of the parent.
+     * @param frameOffset The offset of the bounds of the parent.
+     * @param box         The array to decode into.
+     * @param offset      The offset to decode into.
+     */
+    private void decodeBounds(int node, double[] frame, int frameOffset, double[] box, int offset) {
+        int levels = (1 << bits) - 1;
+        for (int a = 0; a < 6; a++) {
+            int q = bounds8 != null ? bounds8[6 * node + a] & 0xFF : bounds16[6 * node + a] & 0xFFFF;
+            box[offset + a] = decode(q, frame[frameOffset + a % 3], frame[frameOffset + a % 3 + 3], levels);
+        }
+    }
+
+    /**
+     * Returns the number of bytes the bounds and the offsets of the nodes take, per node.
+     * exact bounds take 48 bytes, and compact bounds 6 or 12. with exact bounds, the Geometries objects of the
+     * nodes and their bounding boxes are kept as well.
+     *
+     * @return The number of bytes per node.
+     */
+    double getBytesPerNode() {
+        int count = parents.length;
+        // the offsets and the parents of the nodes
+        long bytes = (4L * Integer.BYTES + Integer.BYTES) * count;
+        bytes += bits == 0 ? 6L * Double.BYTES * count : 6L * (bits / 8) * count + 12L * Double.BYTES;
+        return (double) bytes / count;
+    }
+
+    /**
+     * Grows bounds to include a bounding box.
+     *
+     * @param box   The bounds to grow.
+     * @param other The bounding box to include.
+     */
+    private static void growBox(double[] box, BoundingBox other) {
+        box[0] = Math.min(box[0], other.getMinX());
+        box[1] = Math.min(box[1], other.getMinY());
+        box[2] = Math.min(box[2], other.getMinZ());
+        box[3] = Math.max(box[3], other.getMaxX());
+        box[4] = Math.max(box[4], other.getMaxY());
+        box[5] = Math.max(box[5], other.getMaxZ());
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters the root, within the interval between the ray's head
+     * and a maximum distance.
+     *
+     * @param ray         The ray to check for intersection.
+     * @param maxDistance The end of the interval.
+     * @return The entry distance, or positive infinity if the ray does not intersect the root within the interval.
+     */
+    private double rootEntry(Ray ray, double maxDistance) {
+        return entryDistance(bits == 0 ? bounds : rootBounds, 0, ray, maxDistance);
+    }
+
+    /**
+     * Prepares the decoding of the children of a node from compact bounds: copies the bounds the children are
+     * relative to into the frame scratch box, before the children are pushed over the node's stack slot.
+     *
+     * @param node  The node index.
+     * @param boxes The box stack, null if the bounds are exact.
+     * @param slot  The stack slot of the node.
+     */
+    private void loadFrame(int node, double[] boxes, int slot) {
+        if (boxes != null)
+            System.arraycopy(node == 0 ? rootFrame : boxes, node == 0 ? 0 : 6 * slot, boxes, frameOffset, 6);
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters a child node, within the interval between the ray's
+     * head and a maximum distance. compact bounds are decoded into the child scratch box.
+     *
+     * @param child       The child node index.
+     * @param boxes       The box stack, null if the bounds are exact.
+     * @param ray         The ray to check for intersection.
+     * @param maxDistance The end of the interval.
+     * @return The entry distance, or positive infinity if the ray does not intersect the child within the interval.
+     */
+    private double childEntry(int child, double[] boxes, Ray ray, double maxDistance) {
+        if (boxes == null)
+            return entryDistance(bounds, 6 * child, ray, maxDistance);
+        decodeBounds(child, boxes, frameOffset, boxes, childOffset);
+        return entryDistance(boxes, childOffset, ray, maxDistance);
+    }
+
+    /**
+     * Stores the decoded bounds of a child in the child scratch box at its stack slot.
+     *
+     * @param boxes The box stack, null if the bounds are exact.
+     * @param slot  The stack slot of the child.
+     */
+    private void storeChild(double[] boxes, int slot) {
+        if (boxes != null)
+            System.arraycopy(boxes, childOffset, boxes, 6 * slot, 6);
+    }
+
+    /**
+     * Finds the intersections of a ray with the primitives of the tree.
+     *
+     * @param ray The ray to intersect with the tree.
+     * @return A list of intersection GeoPoints, or null if there are none.
+     */
+    List<GeoPoint> findGeoIntersections(Ray ray) {
+        if (rootEntry(ray, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY)
+            return null;
+        List<GeoPoint> intersections = null;
+        int[] stack = stacks.get();
+        double[] boxes = bits == 0 ? null : boxStacks.get();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int first = nodes[4 * node];
+            for (int i = first; i < first + nodes[4 * node + 1]; i++) {
+                List<GeoPoint> tempIntersections = primitives[i].findGeoIntersections(ray);
+                if (tempIntersections != null) {
+                    if (intersections == null)
+                        intersections = new LinkedList<>();
+                    intersections.addAll(tempIntersections);
+                }
+            }
+
+            loadFrame(node, boxes, top);
+            int firstChild = nodes[4 * node + 2];
+            for (int c = firstChild + nodes[4 * node + 3] - 1; c >= firstChild; c--) {
+                if (childEntry(c, boxes, ray, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY)
+                    continue;
+                storeChild(boxes, top);
+                stack[top++] = c;
+            }
+        }
+        return intersections;
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the primitives of the tree, closer than a maximum distance.
+     * only the point of the closest primitive is constructed, once the traversal is over.
+     *
+     * @param ray         The ray to intersect with the tree.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The closest intersection GeoPoint, or null if there is none.
+     */
+    GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        int[] stack = stacks.get();
+        return findClosestDistance(ray, maxDistance, stack) == Double.POSITIVE_INFINITY ? null
+                : primitives[stack[0]].findClosestGeoIntersection(ray, maxDistance);
+    }
+
+    /**
+     * Finds the distance to the closest intersection of a ray with the primitives of the tree, closer than a
+     * maximum distance.
+     *
+     * @param ray         The ray to intersect with the tree.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The distance to the closest intersection, or positive infinity if there is none.
+     */
+    double findClosestDistance(Ray ray, double maxDistance) {
+        return findClosestDistance(ray, maxDistance, stacks.get());
+    }
+
+    /**
+     * Finds the distance to the closest intersection of a ray with the primitives of the tree, closer than a
+     * maximum distance. only the distance and the index of the closest primitive so far are kept.
+     * <p>
+     * The nodes are visited nearest first, and every node whose entry distance is beyond the closest
+     * intersection found so far is skipped, so geometry hidden behind the first hit is rarely intersected.
+     *
+     * @param ray         The ray to intersect with the tree.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @param stack       The node stack of the thread. the index of the closest primitive is left at its bottom.
+     * @return The distance to the closest intersection, or positive infinity if there is none.
+     */
+    private double findClosestDistance(Ray ray, double maxDistance, int[] stack) {
+        double closestDistance = maxDistance;
+        int closestPrimitive = -1;
+        double rootDistance = rootEntry(ray, closestDistance);
+        if (rootDistance == Double.POSITIVE_INFINITY)
+            return Double.POSITIVE_INFINITY;
+        double[] distances = distanceStacks.get();
+        double[] boxes = bits == 0 ? null : boxStacks.get();
+        int top = 0;
+        stack[top] = 0;
+        distances[top++] = rootDistance;
+        while (top > 0) {
+            int node = stack[--top];
+            // a closer intersection may have been found since the node was pushed
+            if (distances[top] >= closestDistance)
+                continue;
+
+            int first = nodes[4 * node];
+            for (int i = first; i < first + nodes[4 * node + 1]; i++) {
+                double distance = primitives[i].findClosestDistance(ray, closestDistance);
+                if (distance < closestDistance) {
+                    closestDistance = distance;
+                    closestPrimitive = i;
+                }
+            }
+
+            loadFrame(node, boxes, top);
+            int firstChild = nodes[4 * node + 2];
+            int pushed = top;
+            for (int c = firstChild; c < firstChild + nodes[4 * node + 3]; c++) {
+                double distance = childEntry(c, boxes, ray, closestDistance);
+                if (distance == Double.POSITIVE_INFINITY)
+                    continue;
+                // insertion sort, so the nearest child is on the top of the stack
+                int j = top++;
+                for (; j > pushed && distances[j - 1] < distance; j--) {
+                    stack[j] = stack[j - 1];
+                    distances[j] = distances[j - 1];
+                    if (boxes != null)
+                        System.arraycopy(boxes, 6 * (j - 1), boxes, 6 * j, 6);
+                }
+                stack[j] = c;
+                distances[j] = distance;
+                storeChild(boxes, j);
+            }
+        }
+        if (closestPrimitive == -1)
+            return Double.POSITIVE_INFINITY;
+        stack[0] = closestPrimitive;
+        return closestDistance;
+    }
+
+    /**
+     * Finds the transmittance of the primitives of the tree along a ray, up to a maximum distance.
+     * <p>
+     * The nodes are visited in any order, and the traversal stops as soon as the ray is blocked.
+     *
+     * @param ray              The ray to intersect with the tree.
+     * @param maxDistance      The distance beyond which intersections are ignored.
+     * @param minTransmittance The transmittance below which the ray is considered blocked.
+     * @return The transmittance along the ray, or Double3.ZERO once it drops below minTransmittance.
+     */
+    Double3 findTransmittance(Ray ray, double maxDistance, double minTransmittance) {
+        if (rootEntry(ray, maxDistance) == Double.POSITIVE_INFINITY)
+            return Double3.ONE;
+        Double3 transmittance = Double3.ONE;
+        int[] stack = stacks.get();
+        double[] boxes = bits == 0 ? null : boxStacks.get();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int first = nodes[4 * node];
+            for (int i = first; i < first + nodes[4 * node + 1]; i++) {
+                transmittance = transmittance.product(primitives[i].findTransmittance(ray, maxDistance, minTransmittance));
+                if (transmittance.lowerThan(minTransmittance))
+                    return Double3.ZERO;
+            }
+
+            loadFrame(node, boxes, top);
+            int firstChild = nodes[4 * node + 2];
+            for (int c = firstChild; c < firstChild + nodes[4 * node + 3]; c++) {
+                if (childEntry(c, boxes, ray, maxDistance) == Double.POSITIVE_INFINITY)
+                    continue;
+                storeChild(boxes, top);
+                stack[top++] = c;
+            }
+        }
+        return transmittance;
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters the bounds at an offset,
+     * within the interval between the ray's head and a maximum distance.
+     *
+     * @param b           The bounds array.
+     * @param offset      The offset of the box.
+     * @param ray         The ray to check for intersection.
+     * @param maxDistance The end of the interval.
+     * @return The entry distance (0 if the head is inside the box), or positive infinity if the ray
+     * does not intersect the box within the interval.
+     */
+    private static double entryDistance(double[] b, int offset, Ray ray, double maxDistance) {
+        return BoundingBox.entryDistance(b[offset], b[offset + 1], b[offset + 2],
+                b[offset + 3], b[offset + 4], b[offset + 5], ray, 0, maxDistance);
+    }
+}
@@ -2,15 +2,37 @@ package geometries;
 
 import primitives.*;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The Geometries class represents a list of geometries.
  * It implements the Intersectable interface.
  */
 public class Geometries extends Intersectable {
+    /**
+     * The builders of the hierarchical tree.
+     */
+    public enum BuildMode {
+        /**
+         * Splits every node where the surface area heuristic (SAH) is lowest - slower to build, faster to render.
+         */
+        SAH,
+        /**
+         * Splits the nodes by the Morton codes of the geometries (LBVH) - builds in linear time,
+         * for scenes that are rebuilt often such as animation frames and interactive previews.
+         */
+        LINEAR,
+        /**
+         * Puts the geometries in a {@link UniformGrid} instead of a tree - builds in linear time, for many
+         * similar-sized geometries spread evenly. the geometries of the grid cannot be replaced or refitted.
+         */
+        GRID
+    }
+
     /**
      * A list of geometries.
      */
@@ -21,6 +43,68 @@ public class Geometries extends Intersectable {
      */
     protected BoundingBox boundingBox;
 
+    /**
+     * The SAH cost of the tree, as estimated by the last build or refit.
+     */
+    private double sahCost = Double.NaN;
+
+    /**
+     * The SAH cost of the tree right after the last build.
+     */
+    private double builtSahCost = Double.NaN;
+
+    /**
+     * The ratio between the current and the built SAH cost at which a refit rebuilds the tree.
+     */
+    private double refitThreshold = 1.5;
+
+    /**
+     * The builder of the last build of the tree, null if the tree was never built.
+     */
+    private BuildMode buildMode;
+
+    /**
+     * The compiled array form of the tree, null if the tree was not built or was changed since.
+     */
+    private FlatBvh flatBvh;
+
+    /**
+     * Whether these geometries are a node of the tree built for other geometries.
+     * the nodes are opened again when the tree is rebuilt, so the rebuilt tree is not limited by the old one.
+     */
+    private boolean treeNode;
+
+    /**
+     * The uniform grid of the last build, null if the last build was not a {@link BuildMode#GRID} build.
+     */
+    private UniformGrid grid;
+
+    /**
+     * The number of threads used for building the tree.
+     */
+    private int buildThreads = 1;
+
+    /**
+     * The time the last build took, in milliseconds.
+     */
+    private double buildTime = Double.NaN;
+
+    /**
+     * The number of bits of the compact bounds of the tree nodes, 0 for exact bounds.
+     */
+    private int compactBits;
+
+    /**
+     * Whether the tree has no nodes - its bounds were made compact or it was loaded from a file -
+     * and the list holds the primitives of the tree in their order.
+     */
+    private boolean flattened;
+
+    /**
+     * The directory of the files of built trees, null if built trees are not saved.
+     */
+    private Path treeCache;
+
     /**
      * Constructs an empty Geometries object.
      */
@@ -44,10 +128,50 @@ public class Geometries extends Intersectable {
      */
     public void add(Intersectable... geometries) {
         this.geometries.addAll(List.of(geometries));
+        flatBvh = null;
+    }
+
+    /**
+     * getter for the list of geometries
+     *
+     * @return the list of geometries
+     */
+    List<Intersectable> getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * getter for the primitives of the geometries: the geometries that are not Geometries objects,
+     * of these geometries and of all the geometries nested in them, including the nodes and the grid of a build.
+     *
+     * @return the primitives, depth first
+     */
+    public List<Intersectable> getPrimitives() {
+        List<Intersectable> primitives = new ArrayList<>();
+        collectPrimitives(geometries, primitives);
+        return primitives;
+    }
+
+    /**
+     * adds the primitives of geometries to a list, opening nested geometries and the grid of the last build.
+     *
+     * @param geometries the geometries
+     * @param primitives the list the primitives are added to
+     */
+    private void collectPrimitives(List<Intersectable> geometries, List<Intersectable> primitives) {
+        for (Intersectable geo : geometries) {
+            if (geo == grid)
+                collectPrimitives(grid.getGeometries(), primitives);
+            else if (geo instanceof Geometries nested)
+                nested.collectPrimitives(nested.geometries, primitives);
+            else
+                primitives.add(geo);
+        }
     }
 
     /**
      * builds the bounding box that contains all the geometries.
+     * if one of the geometries is unbounded, the geometries are unbounded too and the bounding box is null.
      *
      * @return this
      */
@@ -55,59 +179,355 @@ public class Geometries extends Intersectable {
         if (geometries.isEmpty()) {
             return null;
         }
-        this.boundingBox = new BoundingBox(geometries.get(0).getBoundingBox().getMinPoint(), geometries.get(0).getBoundingBox().getMaxPoint());
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
         for (Intersectable geo : geometries) {
-            this.boundingBox.expand(geo.getBoundingBox());
+            BoundingBox box = geo.getBoundingBox();
+            if (box == null) {
+                this.boundingBox = null;
+                return this;
+            }
+            minX = Math.min(minX, box.getMinX());
+            minY = Math.min(minY, box.getMinY());
+            minZ = Math.min(minZ, box.getMinZ());
+            maxX = Math.max(maxX, box.getMaxX());
+            maxY = Math.max(maxY, box.getMaxY());
+            maxZ = Math.max(maxZ, box.getMaxZ());
         }
+        this.boundingBox = new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
         return this;
     }
 
     /**
-     * builds the hierarchical tree of the geometries.
+     * builds the hierarchical tree of the geometries with the surface area heuristic builder.
      *
      * @return this
+     * @see #buildTree(BuildMode)
      */
     public Geometries buildTree() {
+        return buildTree(BuildMode.SAH);
+    }
+
+    /**
+     * builds the hierarchical tree of the geometries with the given builder,
+     * and compiles it into flat arrays that are used for finding intersections until geometries are added.
+     * unbounded geometries (such as planes and tubes) are kept in a short list beside the tree and are
+     * checked for every ray, so they do not make the bounding boxes of the tree infinite.
+     * nested geometries that are not finitely bounded are opened, so their bounded geometries join the tree
+     * and only their unbounded geometries are kept beside it.
+     *
+     * @param mode the builder to build the tree with
+     * @return this
+     */
+    public Geometries buildTree(BuildMode mode) {
         if (geometries.isEmpty()) {
             return null;
         }
+        long start = System.nanoTime();
+
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> children = new ArrayList<>();
+        separateUnbounded(geometries, bounded, children);
+
+        grid = null;
+        // the tree depends only on the geometries and their order, so a tree of the same geometries is loaded
+        List<Intersectable> primitives = null;
+        Path cacheFile = null;
+        if (treeCache != null && mode != BuildMode.GRID) {
+            primitives = new ArrayList<>(bounded);
+            primitives.addAll(children);
+            cacheFile = treeCache.resolve(BvhCache.fileName(primitives, mode));
+            FlatBvh loaded = BvhCache.load(cacheFile, primitives);
+            if (loaded != null) {
+                this.geometries = new ArrayList<>(List.of(loaded.primitives));
+                BuildBoundingBox();
+                flatBvh = loaded;
+                sahCost = builtSahCost = flatBvh.getCost();
+                if (compactBits != 0)
+                    flatBvh.compact(compactBits);
+                flattened = true;
+                buildMode = mode;
+                buildTime = (System.nanoTime() - start) / 1e6;
+                return this;
+            }
+        }
+
+        if (!bounded.isEmpty() && mode == BuildMode.GRID) {
+            grid = new UniformGrid(bounded);
+            children.add(grid);
+        } else if (!bounded.isEmpty()) {
+            ForkJoinPool pool = buildThreads > 1 ? new ForkJoinPool(buildThreads) : null;
+            BvhBuilder builder = new BvhBuilder(bounded, pool);
+            BvhBuilder.Node root;
+            try {
+                root = mode == BuildMode.LINEAR ? builder.buildLinear() : builder.build();
+            } finally {
+                if (pool != null)
+                    pool.shutdown();
+            }
+            Intersectable tree = buildNode(builder, root);
+            // when the whole tree is bounded, the root node itself becomes this
+            if (children.isEmpty() && tree instanceof Geometries rootNode)
+                children.addAll(rootNode.geometries);
+            else
+                children.add(tree);
+        }
+
+        this.geometries = children;
         BuildBoundingBox();
-        return buildTree(this, 0);
+        flatBvh = FlatBvh.compile(this);
+        sahCost = builtSahCost = flatBvh.getCost();
+        if (cacheFile != null)
+            BvhCache.save(cacheFile, flatBvh, primitives);
+        // the nodes are not needed once the bounds are compact, only their primitives
+        flattened = compactBits != 0 && flatBvh.compact(compactBits);
+        if (flattened)
+            this.geometries = new ArrayList<>(List.of(flatBvh.primitives));
+        buildMode = mode;
+        buildTime = (System.nanoTime() - start) / 1e6;
+        return this;
     }
 
     /**
-     * builds the hierarchical tree of the geometries.
+     * separates geometries into the finitely bounded geometries and the unbounded ones,
+     * opening nested geometries that are not finitely bounded, and the nodes and the grid of the last build.
      *
-     * @param geometries The geometries to add to the list.
-     * @param level      The level of the tree.
-     * @return this
+     * @param geometries the geometries to separate
+     * @param bounded    the list the finitely bounded geometries are added to
+     * @param unbounded  the list the unbounded geometries are added to
      */
-    private Geometries buildTree(Geometries geometries, int level) {
+    private void separateUnbounded(List<Intersectable> geometries, List<Intersectable> bounded,
+                                   List<Intersectable> unbounded) {
+        for (Intersectable geo : geometries) {
+            BoundingBox box = geo.getBoundingBox();
+            if (geo == grid)
+                bounded.addAll(grid.getGeometries());
+            else if (geo instanceof Geometries nested && nested.treeNode)
+                separateUnbounded(nested.geometries, bounded, unbounded);
+            else if (box != null && box.isFinite())
+                bounded.add(geo);
+            else if (geo instanceof Geometries nested)
+                separateUnbounded(nested.geometries, bounded, unbounded);
+            else
+                unbounded.add(geo);
+        }
+    }
 
-        if (level == 7 || geometries == null) {
-            return this;
+    /**
+     * creates the geometries of a node of the built hierarchy.
+     *
+     * @param builder the builder of the hierarchy
+     * @param node    the node
+     * @return the single primitive of a one primitive leaf, or new geometries holding the node's content
+     */
+    private static Intersectable buildNode(BvhBuilder builder, BvhBuilder.Node node) {
+        if (node.isLeaf() && node.count == 1)
+            return builder.primitives[builder.order[node.start]];
+
+        Geometries result = new Geometries();
+        result.geometries = new ArrayList<>(node.isLeaf() ? node.count : 2);
+        if (node.isLeaf()) {
+            for (int i = node.start; i < node.start + node.count; i++)
+                result.geometries.add(builder.primitives[builder.order[i]]);
+        } else {
+            result.geometries.add(buildNode(builder, node.left));
+            result.geometries.add(buildNode(builder, node.right));
         }
+        result.boundingBox = BvhBuilder.toBoundingBox(node);
+        result.treeNode = true;
+        return result;
+    }
 
-        double midX = geometries.getBoundingBox().getMidPointX();
+    /**
+     * checks if the tree is built and up to date with the geometries
+     *
+     * @return true if the tree was built and no geometries were added since, false otherwise
+     */
+    boolean isBuilt() {
+        return flatBvh != null;
+    }
 
-        Geometries leftGeometries = new Geometries();
-        Geometries rightGeometries = new Geometries();
+    /**
+     * getter for the SAH cost of the tree, as estimated by the last build or refit.
+     * the cost is the expected number of primitive intersections (and node traversals, weighted by their
+     * relative cost) for a ray that hits the tree.
+     *
+     * @return the SAH cost of the tree, or NaN if the tree was never built
+     */
+    public double getSahCost() {
+        return sahCost;
+    }
 
-        for (Intersectable geometry : geometries.geometries) {
-            if (geometry.getBoundingBox().getMidPointX() <= midX) {
-                leftGeometries.add(geometry);
-            } else {
-                rightGeometries.add(geometry);
+    /**
+     * replaces a geometry of the tree with another one, for example a moved copy of it.
+     * the bounding boxes are updated by the next call to {@link #refit()}.
+     *
+     * @param oldGeometry the geometry to replace
+     * @param newGeometry the geometry to put in its place
+     * @return this
+     * @throws IllegalArgumentException if the old geometry is not one of the geometries
+     */
+    public Geometries replace(Intersectable oldGeometry, Intersectable newGeometry) {
+        if (flatBvh != null) {
+            int slot = flatBvh.replace(oldGeometry, newGeometry);
+            if (flattened)
+                geometries.set(slot, newGeometry);
+            return this;
+        }
+        if (!replaceInTree(oldGeometry, newGeometry))
+            throw new IllegalArgumentException("The geometry is not a part of the geometries");
+        return this;
+    }
+
+    /**
+     * replaces a geometry with another one in this geometries or in the geometries nested in it.
+     *
+     * @param oldGeometry the geometry to replace
+     * @param newGeometry the geometry to put in its place
+     * @return true if the geometry was found and replaced, false otherwise
+     */
+    private boolean replaceInTree(Intersectable oldGeometry, Intersectable newGeometry) {
+        for (int i = 0; i < geometries.size(); i++) {
+            Intersectable geo = geometries.get(i);
+            if (geo == oldGeometry) {
+                geometries.set(i, newGeometry);
+                return true;
             }
+            if (geo instanceof Geometries nested && nested.replaceInTree(oldGeometry, newGeometry))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * marks a geometry of the tree whose bounding box has changed.
+     * the bounding boxes are updated by the next call to {@link #refit()}.
+     *
+     * @param geometry the geometry that has changed
+     * @return this
+     * @throws IllegalArgumentException if the geometry is not one of the geometries
+     */
+    public Geometries update(Intersectable geometry) {
+        if (flatBvh != null)
+            flatBvh.update(geometry);
+        else if (!containsInTree(geometry))
+            throw new IllegalArgumentException("The geometry is not a part of the geometries");
+        return this;
+    }
+
+    /**
+     * checks if a geometry is in this geometries or in the geometries nested in it.
+     *
+     * @param geometry the geometry to look for
+     * @return true if the geometry was found, false otherwise
+     */
+    private boolean containsInTree(Intersectable geometry) {
+        for (Intersectable geo : geometries)
+            if (geo == geometry || geo instanceof Geometries nested && nested.containsInTree(geometry))
+                return true;
+        return false;
+    }
+
+    /**
+     * refits the tree to the geometries that were replaced or updated since the last build or refit:
+     * recalculates their bounding boxes and the bounding boxes of their ancestors, bottom-up, without
+     * changing the structure of the tree.
+     * refitting makes the tree less efficient as geometries move away from each other, so once the SAH cost of
+     * the tree grows beyond the refit threshold the tree is rebuilt instead.
+     * if the tree was never built, or geometries were added since the last build, the tree is built.
+     *
+     * @return this
+     */
+    public Geometries refit() {
+        if (flatBvh == null) {
+            buildTree(buildMode == null ? BuildMode.SAH : buildMode);
+            return this;
         }
+        flatBvh.refit();
+        if (flattened)
+            BuildBoundingBox();
+        sahCost = flatBvh.getCost();
+        if (sahCost > refitThreshold * builtSahCost)
+            buildTree(buildMode);
+        return this;
+    }
+
+    /**
+     * sets the refit threshold: the ratio between the current SAH cost of the tree and its cost right after
+     * the last build, beyond which {@link #refit()} rebuilds the tree.
+     *
+     * @param threshold the refit threshold, at least 1
+     * @return this
+     */
+    public Geometries setRefitThreshold(double threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Refit threshold must be at least 1");
+        this.refitThreshold = threshold;
+        return this;
+    }
 
-        this.geometries = new ArrayList<>();
-        this.geometries.add(leftGeometries.buildTree(leftGeometries.BuildBoundingBox(), level + 1));
-        this.geometries.add(rightGeometries.buildTree(rightGeometries.BuildBoundingBox(), level + 1));
+    /**
+     * sets the number of threads to be used for building the tree.
+     * the built tree is the same for any number of threads.
+     *
+     * @param threadsCount number of threads, 1 for a serial build
+     * @return this
+     */
+    public Geometries setBuildThreads(int threadsCount) {
+        if (threadsCount < 1)
+            throw new IllegalArgumentException("Build threads must be at least 1");
+        this.buildThreads = threadsCount;
+        return this;
+    }
+
+    /**
+     * sets the precision of the bounds of the tree nodes for the next builds: exact bounds, or compact bounds
+     * of 8 or 16 bits relative to the bounds of the parent node, rounded outwards so no intersection is lost.
+     * compact bounds take a fraction of the memory, and the nodes of the tree are released after the build,
+     * at the cost of looser boxes (mostly with 8 bits) and of refits that decode and encode the whole tree.
+     *
+     * @param bits 0 for exact bounds, 8 or 16 for compact bounds
+     * @return this
+     */
+    public Geometries setCompactBounds(int bits) {
+        if (bits != 0 && bits != 8 && bits != 16)
+            throw new IllegalArgumentException("Compact bounds must be of 8 or 16 bits, or 0 for exact bounds");
+        this.compactBits = bits;
+        return this;
+    }
 
+    /**
+     * sets the directory of the files of built trees: every build is saved to a file named by the bounding boxes
+     * of the geometries, and a later build of geometries with the same bounding boxes, in the same order and with
+     * the same builder, loads the file instead of building the tree again. grid builds are never saved.
+     * files that cannot be read or written are skipped, and the tree is built as usual.
+     *
+     * @param directory the directory of the files, null to neither save nor load trees
+     * @return this
+     */
+    public Geometries setTreeCache(Path directory) {
+        this.treeCache = directory;
         return this;
     }
 
+    /**
+     * getter for the memory the tree takes per node: the bounds and the offsets of the node.
+     *
+     * @return the number of bytes per node, or NaN if the tree is not built
+     */
+    public double getBytesPerNode() {
+        return flatBvh == null ? Double.NaN : flatBvh.getBytesPerNode();
+    }
+
+    /**
+     * getter for the time the last build of the tree took
+     *
+     * @return the build time in milliseconds, or NaN if the tree was never built
+     */
+    public double getBuildTime() {
+        return buildTime;
+    }
+
     /**
      * Finds intersections between the given ray and the geometries in the list.
      *
@@ -116,6 +536,9 @@ public class Geometries extends Intersectable {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        if (flatBvh != null) {
+            return flatBvh.findGeoIntersections(ray);
+        }
         if (isBvH) {
             return findGeoIntersectionsHelperBvH(ray);
         }
@@ -131,6 +554,83 @@ public class Geometries extends Intersectable {
         return intersections;
     }
 
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        if (flatBvh != null) {
+            return flatBvh.findClosestGeoIntersection(ray, maxDistance);
+        }
+        Intersectable closest = findClosestGeometry(ray, maxDistance);
+        // only the point of the closest geometry is constructed
+        return closest == null ? null : closest.findClosestGeoIntersection(ray, maxDistance);
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        if (flatBvh != null) {
+            return flatBvh.findClosestDistance(ray, maxDistance);
+        }
+        double closestDistance = maxDistance;
+        for (Intersectable geo : geometries) {
+            if (!isMissed(geo, ray, closestDistance))
+                closestDistance = Math.min(closestDistance, geo.findClosestDistance(ray, closestDistance));
+        }
+        return closestDistance < maxDistance ? closestDistance : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Checks if a ray misses the bounding box of a geometry closer than a distance, when the boxes are used.
+     *
+     * @param geo         The geometry.
+     * @param ray         The ray.
+     * @param maxDistance The distance beyond which the box is ignored.
+     * @return true if the geometry can be skipped, false otherwise.
+     */
+    private boolean isMissed(Intersectable geo, Ray ray, double maxDistance) {
+        return isBvH && geo.getBoundingBox() != null
+                && geo.getBoundingBox().entryDistance(ray, 0, maxDistance) == Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Finds the geometry of the closest intersection of a ray with the geometries, by the distances of the
+     * intersections alone.
+     *
+     * @param ray         The ray to intersect with the geometries.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The geometry of the closest intersection closer than maxDistance, or null if there is none.
+     */
+    private Intersectable findClosestGeometry(Ray ray, double maxDistance) {
+        Intersectable closest = null;
+        double closestDistance = maxDistance;
+        for (Intersectable geo : geometries) {
+            if (isMissed(geo, ray, closestDistance))
+                continue;
+            double distance = geo.findClosestDistance(ray, closestDistance);
+            if (distance < closestDistance) {
+                closest = geo;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        if (flatBvh != null) {
+            return flatBvh.findTransmittance(ray, maxDistance, minTransmittance);
+        }
+        Double3 transmittance = Double3.ONE;
+        for (Intersectable geo : geometries) {
+            if (isBvH && geo.getBoundingBox() != null
+                    && geo.getBoundingBox().entryDistance(ray, 0, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            transmittance = transmittance.product(geo.findTransmittance(ray, maxDistance, minTransmittance));
+            if (transmittance.lowerThan(minTransmittance))
+                return Double3.ZERO;
+        }
+        return transmittance;
+    }
+
     /**
      * acts like findGeoIntersectionsHelper but with the hierarchical tree of bounding boxes.
      *
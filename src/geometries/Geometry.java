@@ -68,6 +68,17 @@ public abstract class Geometry extends Intersectable {
      */
     public abstract Vector getNormal(Point p);
 
+    /**
+     * Returns the normal vector to the geometry object at a point found on it. a geometry object that keeps more
+     * than the point with the points it finds - such as the face of a mesh - uses it here.
+     *
+     * @param geoPoint The point found on the geometry object.
+     * @return The normal vector to the geometry object at the point.
+     */
+    protected Vector getGeoNormal(Intersectable.GeoPoint geoPoint) {
+        return getNormal(geoPoint.point);
+    }
+
     @Override
     public BoundingBox getBoundingBox() { return boundingBox; }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package geometries;
+
+import primitives.BoundingBox;
+import primitives.Double3;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The Instance class represents a transformed copy of shared geometries.
+ * many instances can share the same geometries and their tree, so memory grows with the unique geometries and not
+ * with the copies: a ray is transformed into the space of the shared geometries (object space), intersected with
+ * their tree, and the points found are transformed back.
+ * instances added to {@link Geometries} are bounded by their transformed bounding box, so building the tree of
+ * the scene builds a top-level tree over the instances.
+ */
+public class Instance extends Intersectable {
+    /**
+     * The shared geometries.
+     */
+    private final Geometries geometries;
+
+    /**
+     * The transform from object space to the scene.
+     */
+    private final Transform toWorld;
+
+    /**
+     * The transform from the scene to object space.
+     */
+    private final Transform toObject;
+
+    /**
+     * The bounding box of the instance in the scene, null if the shared geometries are unbounded.
+     */
+    private final BoundingBox boundingBox;
+
+    /**
+     * Constructs an Instance of shared geometries with a transform.
+     * the tree of the shared geometries is built if it was not built yet.
+     *
+     * @param geometries The shared geometries.
+     * @param transform  The transform from the space of the shared geometries to the scene.
+     * @throws IllegalArgumentException if the transform is singular
+     */
+    public Instance(Geometries geometries, Transform transform) {
+        this.geometries = geometries;
+        this.toWorld = transform;
+        this.toObject = transform.inverse();
+        if (!geometries.isBuilt())
+            geometries.buildTree();
+        BoundingBox box = geometries.getBoundingBox();
+        this.boundingBox = box == null || !box.isFinite() ? null : transform.transform(box);
+    }
+
+    /**
+     * getter for the shared geometries
+     *
+     * @return the shared geometries
+     */
+    public Geometries getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * getter for the transform from the space of the shared geometries to the scene
+     *
+     * @return the transform
+     */
+    public Transform getTransform() {
+        return toWorld;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    /**
+     * Transforms a ray into object space.
+     *
+     * @param ray the ray in the scene
+     * @param dir the direction of the ray transformed into object space, not normalized
+     * @return the ray in object space
+     */
+    private Ray toObject(Ray ray, Vector dir) {
+        return new Ray(toObject.transform(ray.getP0()), dir);
+    }
+
+    /**
+     * Transforms a point found in object space back to the scene.
+     *
+     * @param geoPoint the point in object space
+     * @param scale    the length of the transformed direction of the ray - a unit of distance along the ray in
+     *                 the scene, in object space
+     * @return the point in the scene, with its distance along the ray in the scene and its normal
+     */
+    private GeoPoint toWorld(GeoPoint geoPoint, double scale) {
+        GeoPoint result = new GeoPoint(geoPoint.geometry, toWorld.transform(geoPoint.point),
+                toWorld.transformNormal(geoPoint.getNormal(), toObject));
+        result.t = geoPoint.t / scale;
+        result.index = geoPoint.index;
+        result.u = geoPoint.u;
+        result.v = geoPoint.v;
+        return result;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Vector dir = toObject.transformVector(ray.getDir());
+        List<GeoPoint> intersections = geometries.findGeoIntersections(toObject(ray, dir));
+        if (intersections == null)
+            return null;
+        double scale = dir.length();
+        List<GeoPoint> result = new LinkedList<>();
+        for (GeoPoint geoPoint : intersections)
+            result.add(toWorld(geoPoint, scale));
+        return result;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        // a unit of distance along the ray in the scene is the length of the transformed direction in object space
+        Vector dir = toObject.transformVector(ray.getDir());
+        double scale = dir.length();
+        GeoPoint geoPoint = geometries.findClosestGeoIntersection(toObject(ray, dir), maxDistance * scale);
+        return geoPoint == null ? null : toWorld(geoPoint, scale);
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        Vector dir = toObject.transformVector(ray.getDir());
+        double scale = dir.length();
+        return geometries.findClosestDistance(toObject(ray, dir), maxDistance * scale) / scale;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        Vector dir = toObject.transformVector(ray.getDir());
+        return geometries.findTransmittance(toObject(ray, dir), maxDistance * dir.length(), minTransmittance);
+    }
+}
@@ -1,6 +1,7 @@
 package geometries;
 
 import primitives.BoundingBox;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -39,6 +40,29 @@ public abstract class Intersectable {
          */
         public Point point;
 
+        /**
+         * The distance of the point along the ray that found it - the ray parameter of the point, so the closest of
+         * the points found by a ray is selected by comparing it alone. NaN if the point was not found by a ray.
+         */
+        public double t = Double.NaN;
+
+        /**
+         * The normal at the point, or null until it is first needed.
+         */
+        public Vector normal;
+
+        /**
+         * The index of the primitive the point is on within its geometry object - the face of a mesh - or -1 if
+         * the geometry object is a single primitive.
+         */
+        public int index = -1;
+
+        /**
+         * The barycentric coordinates of the point on its triangle (the weights of the second and the third
+         * vertices), or NaN if the point is not on a triangle.
+         */
+        public double u = Double.NaN, v = Double.NaN;
+
         /**
          * Constructs a new GeoPoint object with the specified geometry object and point.
          *
@@ -50,6 +74,44 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructs a new GeoPoint object with the specified geometry object and point, found by a ray at the
+         * specified distance along it.
+         *
+         * @param geometry The geometry object.
+         * @param point    The point on the geometry object.
+         * @param t        The distance of the point along the ray.
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
+            this(geometry, point);
+            this.t = t;
+        }
+
+        /**
+         * Constructs a new GeoPoint object with the specified geometry object, point and normal, for a point whose
+         * normal is not the normal of the geometry at the point - such as a point on a transformed instance.
+         *
+         * @param geometry The geometry object.
+         * @param point    The point on the geometry object.
+         * @param normal   The normal at the point.
+         */
+        public GeoPoint(Geometry geometry, Point point, Vector normal) {
+            this(geometry, point);
+            this.normal = normal;
+        }
+
+        /**
+         * Returns the normal at the point. it is calculated by the geometry object the first time it is needed,
+         * and kept with the point.
+         *
+         * @return The normal at the point.
+         */
+        public Vector getNormal() {
+            if (normal == null)
+                normal = geometry.getGeoNormal(this);
+            return normal;
+        }
+
         /**
          * Checks if the specified object is equal to this GeoPoint object.
          *
@@ -91,10 +153,122 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray);
 
+    /**
+     * Returns the closest intersection GeoPoint of the specified ray with the Intersectable object.
+     *
+     * @param ray The ray to intersect with the Intersectable object.
+     * @return The closest intersection GeoPoint, or null if there is none.
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersectionHelper(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns the closest intersection GeoPoint of the specified ray with the Intersectable object,
+     * that is closer to the ray's head than the specified distance.
+     *
+     * @param ray         The ray to intersect with the Intersectable object.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The closest intersection GeoPoint closer than maxDistance, or null if there is none.
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Returns the closest intersection GeoPoint of the specified ray with the Intersectable object,
+     * that is closer to the ray's head than the specified distance.
+     * the default implementation selects the closest of all the intersections.
+     *
+     * @param ray         The ray to intersect with the Intersectable object.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The closest intersection GeoPoint closer than maxDistance, or null if there is none.
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null)
+            return null;
+        GeoPoint closestPoint = null;
+        double closestDistance = maxDistance;
+        for (GeoPoint geoPoint : intersections) {
+            if (geoPoint.t < closestDistance) {
+                closestDistance = geoPoint.t;
+                closestPoint = geoPoint;
+            }
+        }
+        return closestPoint;
+    }
+
+    /**
+     * Returns the distance along the specified ray to its closest intersection with the Intersectable object,
+     * that is closer to the ray's head than the specified distance. no point is constructed, so a traversal keeps
+     * only the distance and the object of the closest intersection so far, and constructs the point of the
+     * closest one once at the end.
+     *
+     * @param ray         The ray to intersect with the Intersectable object.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The distance to the closest intersection closer than maxDistance, or positive infinity if there is none.
+     */
+    public double findClosestDistance(Ray ray, double maxDistance) {
+        return findClosestDistanceHelper(ray, maxDistance);
+    }
+
+    /**
+     * Returns the distance along the specified ray to its closest intersection with the Intersectable object,
+     * that is closer to the ray's head than the specified distance.
+     * the default implementation finds the closest intersection GeoPoint.
+     *
+     * @param ray         The ray to intersect with the Intersectable object.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The distance to the closest intersection closer than maxDistance, or positive infinity if there is none.
+     */
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        GeoPoint geoPoint = findClosestGeoIntersectionHelper(ray, maxDistance);
+        return geoPoint == null ? Double.POSITIVE_INFINITY : geoPoint.t;
+    }
+
     /**
      * Returns the bounding box of the Intersectable object.
      *
      * @return The bounding box of the Intersectable object.
      */
     public abstract BoundingBox getBoundingBox();
-}
\ No newline at end of file
+
+    /**
+     * Returns the transmittance of the Intersectable object along the specified ray, up to the specified
+     * distance - the product of the transparency coefficients of all the intersections closer than it.
+     *
+     * @param ray              The ray to intersect with the Intersectable object.
+     * @param maxDistance      The distance beyond which intersections are ignored.
+     * @param minTransmittance The transmittance below which the ray is considered blocked.
+     * @return The transmittance along the ray, or Double3.ZERO once it drops below minTransmittance.
+     */
+    public Double3 findTransmittance(Ray ray, double maxDistance, double minTransmittance) {
+        return findTransmittanceHelper(ray, maxDistance, minTransmittance);
+    }
+
+    /**
+     * Returns the transmittance of the Intersectable object along the specified ray, up to the specified
+     * distance. the default implementation multiplies the transparency coefficients of all the intersections,
+     * and stops at the first one that blocks the ray.
+     *
+     * @param ray              The ray to intersect with the Intersectable object.
+     * @param maxDistance      The distance beyond which intersections are ignored.
+     * @param minTransmittance The transmittance below which the ray is considered blocked.
+     * @return The transmittance along the ray, or Double3.ZERO once it drops below minTransmittance.
+     */
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null)
+            return Double3.ONE;
+        Double3 transmittance = Double3.ONE;
+        for (GeoPoint geoPoint : intersections) {
+            if (geoPoint.t < maxDistance) {
+                transmittance = transmittance.product(geoPoint.geometry.getMaterial().kT);
+                if (transmittance.lowerThan(minTransmittance))
+                    return Double3.ZERO;
+            }
+        }
+        return transmittance;
+    }
+}
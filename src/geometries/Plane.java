@@ -38,15 +38,16 @@ public class Plane extends Geometry {
     public Plane(Point q1, Point q2, Point q3) {
         q0 = q1;
         normal = q1.subtract(q2).crossProduct(q1.subtract(q3)).normalize();
+        // a plane is unbounded, so like the plane of a point and a normal it has no bounding box
+    }
 
-        double minX = Double.NEGATIVE_INFINITY;
-        double minY = Double.NEGATIVE_INFINITY;
-        double minZ = Double.NEGATIVE_INFINITY;
-        double maxX = Double.POSITIVE_INFINITY;
-        double maxY = Double.POSITIVE_INFINITY;
-        double maxZ = Double.POSITIVE_INFINITY;
-
-        this.boundingBox = new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+    /**
+     * Returns the reference point of the Plane object.
+     *
+     * @return The reference point of the Plane object.
+     */
+    public Point getQ0() {
+        return q0;
     }
 
     /**
@@ -63,12 +64,45 @@ public class Plane extends Geometry {
         return normal;
     }
 
+    /**
+     * Calculates the distance along a ray to its intersection with the plane.
+     *
+     * @param ray The ray to intersect with the plane.
+     * @return The distance to the intersection, or positive infinity if there is none.
+     */
+    public double intersect(Ray ray) {
+        Vector dir = ray.getDir();
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double denominator = nx * dir.getX() + ny * dir.getY() + nz * dir.getZ();
+        if (Util.isZero(denominator)) return Double.POSITIVE_INFINITY;
+        double t = Util.alignZero((nx * (q0.getX() - ray.getOriginX()) + ny * (q0.getY() - ray.getOriginY())
+                + nz * (q0.getZ() - ray.getOriginZ())) / denominator);
+        return t <= 0 ? Double.POSITIVE_INFINITY : t;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        Point p0 = ray.getP0();
-        double denominator = normal.dotProduct(ray.getDir());
-        if (p0.equals(q0) || Util.isZero(denominator)) return null;
-        double t = normal.dotProduct(q0.subtract(p0)) / denominator;
-        return Util.alignZero(t) <= 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+        double t = intersect(ray);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        return t < maxDistance ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        return t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        if (intersect(ray) >= maxDistance)
+            return Double3.ONE;
+        Double3 kT = getMaterial().kT;
+        return kT.lowerThan(minTransmittance) ? Double3.ZERO : kT;
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package geometries;
 
 import primitives.BoundingBox;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
@@ -25,6 +27,27 @@ public class Polygon extends Geometry {
      */
     protected final Plane plane;
     private final int size;
+    /**
+     * The coordinates of the unit normal of the polygon.
+     */
+    private final double nx, ny, nz;
+    /**
+     * The dot product of the normal with the first vertex, so the plane is all the points whose dot product with
+     * the normal is this value.
+     */
+    private final double distance;
+    /**
+     * The axis (0 for x, 1 for y, 2 for z) along which the normal is the longest. the polygon is projected onto the
+     * plane of the two other axes, where it has the largest area.
+     */
+    private final int dominantAxis;
+    /**
+     * The projected edges of the polygon, three values for each edge: the two coordinates of the unit normal of
+     * the edge in the projection plane, pointing into the polygon, and the dot product of that normal with the
+     * start of the edge. a projected point is strictly inside the polygon when its dot product with the normal of
+     * every edge is greater than the value of the edge.
+     */
+    private final double[] edges;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -74,15 +97,22 @@ public class Polygon extends Geometry {
             maxZ = Math.max(maxZ, z);
         }
 
-        this.boundingBox = new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+        this.boundingBox = new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
 
         // Generate the plane according to the first three vertices and associate the
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
+        Vector n = plane.getNormal();
+        nx = n.getX();
+        ny = n.getY();
+        nz = n.getZ();
+        distance = nx * vertices[0].getX() + ny * vertices[0].getY() + nz * vertices[0].getZ();
+        double ax = Math.abs(nx), ay = Math.abs(ny), az = Math.abs(nz);
+        dominantAxis = ax >= ay && ax >= az ? 0 : ay >= az ? 1 : 2;
+        edges = projectEdges(vertices);
         if (size == 3) return; // no need for more tests for a Triangle
 
-        Vector n = plane.getNormal();
         // Subtracting any subsequent points will throw an IllegalArgumentException
         // because of Zero Vector if they are in the same point
         Vector edge1 = vertices[size - 1].subtract(vertices[size - 2]);
@@ -111,11 +141,114 @@ public class Polygon extends Geometry {
 
     }
 
+    /**
+     * Projects a point onto the plane of the two axes other than the dominant axis.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param z The z coordinate of the point.
+     * @return The first projected coordinate.
+     */
+    private double projectU(double x, double y, double z) {
+        return dominantAxis == 0 ? y : x;
+    }
+
+    /**
+     * Projects a point onto the plane of the two axes other than the dominant axis.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param z The z coordinate of the point.
+     * @return The second projected coordinate.
+     */
+    private double projectV(double x, double y, double z) {
+        return dominantAxis == 2 ? y : z;
+    }
+
+    /**
+     * Calculates the projected edges of the polygon, with their normals pointing into the polygon.
+     *
+     * @param vertices The vertices of the polygon, ordered by the edge path.
+     * @return The projected edges, three values for each edge.
+     */
+    private double[] projectEdges(Point[] vertices) {
+        double[] result = new double[3 * size];
+        // the projection keeps the orientation of the polygon when the dominant coordinate of the normal is positive
+        double orientation = (dominantAxis == 0 ? nx : dominantAxis == 1 ? -ny : nz) > 0 ? 1 : -1;
+        for (int i = 0; i < size; i++) {
+            Point from = vertices[i], to = vertices[(i + 1) % size];
+            double u = projectU(from.getX(), from.getY(), from.getZ());
+            double v = projectV(from.getX(), from.getY(), from.getZ());
+            double du = projectU(to.getX(), to.getY(), to.getZ()) - u;
+            double dv = projectV(to.getX(), to.getY(), to.getZ()) - v;
+            double scale = orientation / Math.sqrt(du * du + dv * dv);
+            result[3 * i] = -dv * scale;
+            result[3 * i + 1] = du * scale;
+            result[3 * i + 2] = result[3 * i] * u + result[3 * i + 1] * v;
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with the polygon (a ray through an edge misses it).
+     *
+     * @param ray The ray to intersect with the polygon.
+     * @return The distance to the intersection, or positive infinity if the ray does not intersect the polygon.
+     */
+    public double intersect(Ray ray) {
+        Vector dir = ray.getDir();
+        double denominator = nx * dir.getX() + ny * dir.getY() + nz * dir.getZ();
+        if (isZero(denominator))
+            return Double.POSITIVE_INFINITY;
+        double ox = ray.getOriginX(), oy = ray.getOriginY(), oz = ray.getOriginZ();
+        double t = alignZero((distance - nx * ox - ny * oy - nz * oz) / denominator);
+        if (t <= 0)
+            return Double.POSITIVE_INFINITY;
+        double x = ox + t * dir.getX(), y = oy + t * dir.getY(), z = oz + t * dir.getZ();
+        double u = projectU(x, y, z), v = projectV(x, y, z);
+        for (int i = 0; i < edges.length; i += 3)
+            if (alignZero(edges[i] * u + edges[i + 1] * v - edges[i + 2]) <= 0)
+                return Double.POSITIVE_INFINITY;
+        return t;
+    }
+
+    /**
+     * getter for the vertices of the polygon
+     *
+     * @return the vertices, in their order along the edge path
+     */
+    public List<Point> getVertices() {
+        return vertices;
+    }
+
     @Override
     public Vector getNormal(Point point) {
         return plane.getNormal(point);
     }
 
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) { return null; }
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        double t = intersect(ray);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        return t < maxDistance ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        return t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        if (intersect(ray) >= maxDistance)
+            return Double3.ONE;
+        Double3 kT = getMaterial().kT;
+        return kT.lowerThan(minTransmittance) ? Double3.ZERO : kT;
+    }
 }
@@ -1,7 +1,5 @@
 package geometries;
 
-import primitives.BoundingBox;
-
 /**
  * The RadialGeometry class is an abstract class that represents a geometry object with a radius property.
  * <p>
@@ -18,11 +16,6 @@ public abstract class RadialGeometry extends Geometry {
      */
     protected final double radiusSquared;
 
-    /**
-     * The bounding box of the geometry.
-     */
-    protected BoundingBox boundingBox;
-
     /**
      * Constructs a new RadialGeometry object with the specified radius.
      *
@@ -1,6 +1,7 @@
 package geometries;
 
 import primitives.BoundingBox;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -19,6 +20,11 @@ public class Sphere extends RadialGeometry {
      */
     private final Point center;
 
+    /**
+     * The coordinates of the center point of the sphere.
+     */
+    private final double centerX, centerY, centerZ;
+
     /**
      * Constructs a new Sphere object with the specified radius and center point.
      *
@@ -28,10 +34,9 @@ public class Sphere extends RadialGeometry {
     public Sphere(double r, Point center) {
         super(r);
         this.center = center;
-
-        double centerX = center.getX();
-        double centerY = center.getY();
-        double centerZ = center.getZ();
+        centerX = center.getX();
+        centerY = center.getY();
+        centerZ = center.getZ();
 
         double minX = centerX - radius;
         double minY = centerY - radius;
@@ -40,7 +45,7 @@ public class Sphere extends RadialGeometry {
         double maxY = centerY + radius;
         double maxZ = centerZ + radius;
 
-        this.boundingBox = new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+        this.boundingBox = new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
     }
 
     /**
@@ -50,21 +55,7 @@ public class Sphere extends RadialGeometry {
      * @param center The center point of the Sphere object.
      */
     public Sphere(Point center, double r) {
-        super(r);
-        this.center = center;
-
-        double centerX = center.getX();
-        double centerY = center.getY();
-        double centerZ = center.getZ();
-
-        double minX = centerX - radius;
-        double minY = centerY - radius;
-        double minZ = centerZ - radius;
-        double maxX = centerX + radius;
-        double maxY = centerY + radius;
-        double maxZ = centerZ + radius;
-
-        this.boundingBox = new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+        this(r, center);
     }
 
     /**
@@ -85,7 +76,10 @@ public class Sphere extends RadialGeometry {
      */
     @Override
     public Vector getNormal(Point p) {
-        return p.subtract(center).normalize();
+        // a point on the sphere is at the radius from the center
+        double dx = p.getX() - centerX, dy = p.getY() - centerY, dz = p.getZ() - centerZ;
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        return new Vector(dx / length, dy / length, dz / length);
     }
 
     /**
@@ -100,25 +94,58 @@ public class Sphere extends RadialGeometry {
                 ", radius=" + radius;
     }
 
+    /**
+     * Calculates the distance along a ray to its first intersection with the sphere beyond the given distance.
+     *
+     * @param ray         The ray to intersect with the sphere.
+     * @param minDistance The distance before which (and at which) intersections are ignored.
+     * @return The distance to the intersection, or positive infinity if there is none.
+     */
+    public double intersect(Ray ray, double minDistance) {
+        Vector dir = ray.getDir();
+        double ux = centerX - ray.getOriginX(), uy = centerY - ray.getOriginY(), uz = centerZ - ray.getOriginZ();
+        double tm = dir.getX() * ux + dir.getY() * uy + dir.getZ() * uz;
+        double thSquared = alignZero(radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm));
+        if (thSquared <= 0)
+            return Double.POSITIVE_INFINITY;
+        double th = Math.sqrt(thSquared);
+        double t = tm - th;
+        if (alignZero(t) > 0 && t > minDistance)
+            return t;
+        t = tm + th;
+        return alignZero(t) > 0 && t > minDistance ? t : Double.POSITIVE_INFINITY;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        if (isBvH && !boundingBox.intersectsWith(ray)) return null;
-        if (center.equals(ray.getP0()))
-            return List.of(new GeoPoint(this, ray.getPoint(radius)));
+        double t1 = intersect(ray, 0);
+        if (t1 == Double.POSITIVE_INFINITY)
+            return null;
+        double t2 = intersect(ray, t1);
+        return t2 == Double.POSITIVE_INFINITY ? List.of(new GeoPoint(this, ray.getPoint(t1), t1)) :
+                List.of(new GeoPoint(this, ray.getPoint(t1), t1), new GeoPoint(this, ray.getPoint(t2), t2));
+    }
 
-        Vector u = center.subtract(ray.getP0());
-        double tm = ray.getDir().dotProduct(u);
-        double dSquared = u.lengthSquared() - tm * tm;
-        double thSquared = radiusSquared - dSquared;
-        if (alignZero(thSquared) <= 0) return null;
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, 0);
+        return t < maxDistance ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
 
-        double th = Math.sqrt(thSquared);
-        double t2 = tm + th;
-        if (alignZero(t2) <= 0) return null;
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, 0);
+        return t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
 
-        double t1 = tm - th;
-        return alignZero(t1) <= 0 ? List.of(new GeoPoint(this, ray.getPoint(t2))) :
-                List.of(new GeoPoint(this, ray.getPoint(t1)),
-                        new GeoPoint(this, ray.getPoint(t2)));
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        double t = intersect(ray, 0);
+        if (t >= maxDistance)
+            return Double3.ONE;
+        Double3 kT = getMaterial().kT;
+        if (intersect(ray, t) < maxDistance)
+            kT = kT.product(kT);
+        return kT.lowerThan(minTransmittance) ? Double3.ZERO : kT;
     }
 }
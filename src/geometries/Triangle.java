@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -7,11 +8,33 @@ import primitives.Vector;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * The Triangle class represents a triangle in 3D space, defined by three points.
  */
 public class Triangle extends Polygon {
+    /**
+     * The coordinates of the first vertex.
+     */
+    private final double x0, y0, z0;
+
+    /**
+     * The edge from the first vertex to the second one.
+     */
+    private final double e1x, e1y, e1z;
+
+    /**
+     * The edge from the first vertex to the third one.
+     */
+    private final double e2x, e2y, e2z;
+
+    /**
+     * The inverse of the length of the cross product of the edges, which turns the determinant of the intersection
+     * into the cosine between the ray and the normal.
+     */
+    private final double inverseNormalLength;
+
     /**
      * constructs a new triangle using the given vertices
      *
@@ -21,34 +44,94 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        x0 = p1.getX();
+        y0 = p1.getY();
+        z0 = p1.getZ();
+        e1x = p2.getX() - x0;
+        e1y = p2.getY() - y0;
+        e1z = p2.getZ() - z0;
+        e2x = p3.getX() - x0;
+        e2y = p3.getY() - y0;
+        e2z = p3.getZ() - z0;
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        inverseNormalLength = 1 / Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with the triangle (Moller-Trumbore).
+     *
+     * @param ray         The ray to intersect with the triangle.
+     * @param barycentric An array of at least two values that the barycentric coordinates of the intersection
+     *                    (the weights of the second and the third vertices) are written to, or null.
+     * @return The distance to the intersection, or positive infinity if the ray does not intersect the triangle.
+     */
+    public double intersect(Ray ray, double[] barycentric) {
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det * inverseNormalLength))
+            return Double.POSITIVE_INFINITY;
+        double inv = 1 / det;
+        double sx = ray.getOriginX() - x0, sy = ray.getOriginY() - y0, sz = ray.getOriginZ() - z0;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0 || u >= 1)
+            return Double.POSITIVE_INFINITY;
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (v <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        if (t <= 0)
+            return Double.POSITIVE_INFINITY;
+        if (barycentric != null) {
+            barycentric[0] = u;
+            barycentric[1] = v;
+        }
+        return t;
+    }
+
+    /**
+     * Constructs the intersection of a ray with the triangle at the given distance along it, with the barycentric
+     * coordinates the intersection test found.
+     *
+     * @param ray         The ray that intersects the triangle.
+     * @param t           The distance of the intersection along the ray.
+     * @param barycentric The barycentric coordinates of the intersection, as written by the intersection test.
+     * @return The intersection GeoPoint.
+     */
+    private GeoPoint hit(Ray ray, double t, double[] barycentric) {
+        GeoPoint geoPoint = new GeoPoint(this, ray.getPoint(t), t);
+        geoPoint.u = barycentric[0];
+        geoPoint.v = barycentric[1];
+        return geoPoint;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        if (isBvH && !boundingBox.intersectsWith(ray)) return null;
-        List<GeoPoint> result = plane.findGeoIntersections(ray);
-        if (result == null) return null;
-
-        Point p = ray.getP0();
-        Vector v = ray.getDir();
-        Vector v1 = vertices.get(0).subtract(p);
-        Vector v2 = vertices.get(1).subtract(p);
-        Vector n1 = v1.crossProduct(v2).normalize();
-        double sign1 = alignZero(v.dotProduct(n1));
-        if (sign1 == 0) return null;
-
-        Vector v3 = vertices.get(2).subtract(p);
-        Vector n2 = v2.crossProduct(v3).normalize();
-        double sign2 = alignZero(v.dotProduct(n2));
-        if (sign1 * sign2 <= 0) return null;
-
-        Vector n3 = v3.crossProduct(v1).normalize();
-        double sign3 = alignZero(v.dotProduct(n3));
-        if (sign1 * sign3 <= 0) return null;
-
-        for (GeoPoint geoPoint : result) {
-            geoPoint.geometry = this;
-        }
-        return result;
+        double[] barycentric = new double[2];
+        double t = intersect(ray, barycentric);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(hit(ray, t, barycentric));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] barycentric = new double[2];
+        double t = intersect(ray, barycentric);
+        return t < maxDistance ? hit(ray, t, barycentric) : null;
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, null);
+        return t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        if (intersect(ray, null) >= maxDistance)
+            return Double3.ONE;
+        Double3 kT = getMaterial().kT;
+        return kT.lowerThan(minTransmittance) ? Double3.ZERO : kT;
     }
 }
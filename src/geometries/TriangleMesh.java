@@ -0,0 +1,591 @@
+package geometries;
+
+import primitives.BoundingBox;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * The TriangleMesh class represents a mesh of triangles that share their vertices.
+ * <p>
+ * The coordinates of the vertices are kept in a single array, three values per vertex, and the faces in an array
+ * of vertex indices, three indices per face, so a face takes twelve bytes instead of the points, vectors and boxes
+ * of a {@link Triangle}. The mesh has its own tree over its faces: to the tree of the scene the whole mesh is a
+ * single primitive, and every leaf of the mesh's tree is a contiguous range of faces.
+ * all the faces share the material and the emission of the mesh.
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * The coordinates of the vertices, three values per vertex.
+     */
+    private final double[] vertices;
+
+    /**
+     * The vertex indices of the faces, three indices per face, in the order of the leaves of the tree.
+     */
+    private final int[] faces;
+
+    /**
+     * The inverse of the length of the cross product of the edges of each face (zero for a face of no area), which
+     * turns the determinant of the intersection into the cosine between the ray and the normal, as in a
+     * {@link Triangle}.
+     */
+    private final double[] inverseNormalLengths;
+
+    /**
+     * The nodes of the tree over the faces in breadth first order, four values per node:
+     * the first face and the number of faces of the node, and the first child and the number of children of it.
+     */
+    private final int[] nodes;
+
+    /**
+     * The bounds of the nodes, six values per node (min x, y, z and max x, y, z).
+     */
+    private final double[] nodeBounds;
+
+    /**
+     * The traversal stack of each rendering thread.
+     */
+    private final ThreadLocal<int[]> stacks;
+
+    /**
+     * The entry distances of the nodes in the traversal stack of each rendering thread.
+     */
+    private final ThreadLocal<double[]> distanceStacks;
+
+    /**
+     * Constructs a TriangleMesh of its vertices and faces, and builds the tree over its faces.
+     * the vertex array is shared and not copied, the face array is copied in the order of the tree.
+     * faces of no area are kept, and are never intersected.
+     *
+     * @param vertices The coordinates of the vertices, three values per vertex.
+     * @param faces    The vertex indices of the faces, three indices per face.
+     * @throws IllegalArgumentException if the arrays are not of triples, if there are no faces,
+     *                                  or if a face refers to a vertex that does not exist
+     */
+    public TriangleMesh(double[] vertices, int[] faces) {
+        if (vertices.length % 3 != 0 || faces.length % 3 != 0)
+            throw new IllegalArgumentException("Vertices and faces must be given as triples");
+        if (faces.length == 0)
+            throw new IllegalArgumentException("A mesh must have at least one face");
+        int vertexCount = vertices.length / 3;
+        for (int index : faces)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("A face refers to a vertex that does not exist");
+        this.vertices = vertices;
+
+        int faceCount = faces.length / 3;
+        double[] bounds = new double[6 * faceCount];
+        for (int f = 0; f < faceCount; f++) {
+            BvhBuilder.resetBox(bounds, 6 * f);
+            for (int k = 0; k < 3; k++) {
+                int v = 3 * faces[3 * f + k];
+                for (int a = 0; a < 3; a++) {
+                    bounds[6 * f + a] = Math.min(bounds[6 * f + a], vertices[v + a]);
+                    bounds[6 * f + 3 + a] = Math.max(bounds[6 * f + 3 + a], vertices[v + a]);
+                }
+            }
+        }
+        BvhBuilder builder = new BvhBuilder(bounds);
+        BvhBuilder.Node root = builder.build();
+
+        this.faces = new int[faces.length];
+        for (int i = 0; i < faceCount; i++)
+            System.arraycopy(faces, 3 * builder.order[i], this.faces, 3 * i, 3);
+        inverseNormalLengths = inverseNormalLengths();
+
+        // breadth first, so the two children of every node are next to each other
+        List<BvhBuilder.Node> order = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        order.add(root);
+        depths.add(1);
+        int maxDepth = 1;
+        for (int i = 0; i < order.size(); i++) {
+            BvhBuilder.Node node = order.get(i);
+            if (!node.isLeaf()) {
+                order.add(node.left);
+                order.add(node.right);
+                depths.add(depths.get(i) + 1);
+                depths.add(depths.get(i) + 1);
+                maxDepth = Math.max(maxDepth, depths.get(i) + 1);
+            }
+        }
+        int count = order.size();
+        nodes = new int[4 * count];
+        nodeBounds = new double[6 * count];
+        int nextChild = 1;
+        for (int i = 0; i < count; i++) {
+            BvhBuilder.Node node = order.get(i);
+            System.arraycopy(node.box, 0, nodeBounds, 6 * i, 6);
+            if (node.isLeaf()) {
+                nodes[4 * i] = node.start;
+                nodes[4 * i + 1] = node.count;
+            } else {
+                nodes[4 * i + 2] = nextChild;
+                nodes[4 * i + 3] = 2;
+                nextChild += 2;
+            }
+        }
+        boundingBox = BvhBuilder.toBoundingBox(root);
+
+        // every level of the traversal pops one node and pushes at most two
+        int maxStack = maxDepth + 1;
+        stacks = ThreadLocal.withInitial(() -> new int[maxStack]);
+        distanceStacks = ThreadLocal.withInitial(() -> new double[maxStack]);
+    }
+
+    /**
+     * Constructs a TriangleMesh of its vertices and faces and of a tree that was built over them before - the
+     * arrays of {@link #getFaces()}, {@link #getNodes()} and {@link #getNodeBounds()} of a mesh - so no tree is
+     * built. all the arrays are shared and not copied.
+     *
+     * @param vertices   The coordinates of the vertices, three values per vertex.
+     * @param faces      The vertex indices of the faces, three indices per face, in the order of the tree.
+     * @param nodes      The nodes of the tree, four values per node.
+     * @param nodeBounds The bounds of the nodes, six values per node.
+     * @throws IllegalArgumentException if the arrays are not of triples, if there are no faces, if a face refers
+     *                                  to a vertex that does not exist, or if the nodes are not a tree over the faces
+     */
+    public TriangleMesh(double[] vertices, int[] faces, int[] nodes, double[] nodeBounds) {
+        if (vertices.length % 3 != 0 || faces.length % 3 != 0)
+            throw new IllegalArgumentException("Vertices and faces must be given as triples");
+        if (faces.length == 0)
+            throw new IllegalArgumentException("A mesh must have at least one face");
+        int vertexCount = vertices.length / 3;
+        for (int index : faces)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("A face refers to a vertex that does not exist");
+        int count = nodes.length / 4;
+        if (count == 0 || nodes.length % 4 != 0 || nodeBounds.length != 6 * count)
+            throw new IllegalArgumentException("The nodes of the tree must be given as quadruples with their bounds");
+        // breadth first, every child is after its parent, so the depth of a node is known when it is reached
+        int faceCount = faces.length / 3;
+        int[] depths = new int[count];
+        depths[0] = 1;
+        int maxDepth = 1;
+        for (int i = 0; i < count; i++) {
+            int first = nodes[4 * i], firstChild = nodes[4 * i + 2], children = nodes[4 * i + 3];
+            if (first < 0 || nodes[4 * i + 1] < 0 || first + nodes[4 * i + 1] > faceCount
+                    || children < 0 || children > 2 || children > 0 && (firstChild <= i || firstChild + children > count))
+                throw new IllegalArgumentException("The nodes are not a tree over the faces");
+            for (int c = firstChild; c < firstChild + children; c++) {
+                depths[c] = depths[i] + 1;
+                maxDepth = Math.max(maxDepth, depths[c]);
+            }
+        }
+        this.vertices = vertices;
+        this.faces = faces;
+        this.nodes = nodes;
+        this.nodeBounds = nodeBounds;
+        inverseNormalLengths = inverseNormalLengths();
+        boundingBox = new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+
+        int maxStack = maxDepth + 1;
+        stacks = ThreadLocal.withInitial(() -> new int[maxStack]);
+        distanceStacks = ThreadLocal.withInitial(() -> new double[maxStack]);
+    }
+
+    /**
+     * Calculates the inverse of the length of the cross product of the edges of every face.
+     *
+     * @return The inverse lengths, zero for the faces of no area.
+     */
+    private double[] inverseNormalLengths() {
+        double[] result = new double[faces.length / 3];
+        for (int f = 0; f < result.length; f++) {
+            double length = faceNormalLength(f);
+            result[f] = length == 0 ? 0 : 1 / length;
+        }
+        return result;
+    }
+
+    /**
+     * getter for the number of faces
+     *
+     * @return the number of faces
+     */
+    public int getFaceCount() {
+        return faces.length / 3;
+    }
+
+    /**
+     * getter for the number of vertices
+     *
+     * @return the number of vertices
+     */
+    public int getVertexCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * getter for the coordinates of the vertices, three values per vertex. the array is shared, not copied.
+     *
+     * @return the coordinates of the vertices
+     */
+    public double[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * getter for the vertex indices of the faces, three indices per face, in the order of the tree of the mesh.
+     * the array is shared, not copied.
+     *
+     * @return the vertex indices of the faces
+     */
+    public int[] getFaces() {
+        return faces;
+    }
+
+    /**
+     * getter for the nodes of the tree over the faces, in breadth first order, four values per node: the first face
+     * and the number of faces of the node, and the first child and the number of children of it.
+     * the array is shared, not copied.
+     *
+     * @return the nodes of the tree
+     */
+    public int[] getNodes() {
+        return nodes;
+    }
+
+    /**
+     * getter for the bounds of the nodes of the tree, six values per node (min x, y, z and max x, y, z).
+     * the array is shared, not copied.
+     *
+     * @return the bounds of the nodes
+     */
+    public double[] getNodeBounds() {
+        return nodeBounds;
+    }
+
+    /**
+     * Calculates the length of the cross product of the edges of a face from its first vertex.
+     *
+     * @param face The index of the face.
+     * @return The length of the cross product - twice the area of the face.
+     */
+    private double faceNormalLength(int face) {
+        int v0 = 3 * faces[3 * face], v1 = 3 * faces[3 * face + 1], v2 = 3 * faces[3 * face + 2];
+        double e1x = vertices[v1] - vertices[v0], e1y = vertices[v1 + 1] - vertices[v0 + 1], e1z = vertices[v1 + 2] - vertices[v0 + 2];
+        double e2x = vertices[v2] - vertices[v0], e2y = vertices[v2 + 1] - vertices[v0 + 1], e2z = vertices[v2 + 2] - vertices[v0 + 2];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    /**
+     * Calculates the normal of a face: the normalized cross product of its edges from its first vertex,
+     * as the normal of a {@link Triangle} of the same vertices.
+     *
+     * @param face The index of the face.
+     * @return The normal of the face.
+     */
+    private Vector faceNormal(int face) {
+        int v0 = 3 * faces[3 * face], v1 = 3 * faces[3 * face + 1], v2 = 3 * faces[3 * face + 2];
+        double e1x = vertices[v1] - vertices[v0], e1y = vertices[v1 + 1] - vertices[v0 + 1], e1z = vertices[v1 + 2] - vertices[v0 + 2];
+        double e2x = vertices[v2] - vertices[v0], e2y = vertices[v2 + 1] - vertices[v0 + 1], e2z = vertices[v2 + 2] - vertices[v0 + 2];
+        return new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+    }
+
+    /**
+     * Constructs the intersection of a ray with a face at the given distance along it, with the index of the face
+     * and the barycentric coordinates the intersection test found on it. the normal of the face is calculated
+     * only when it is needed.
+     *
+     * @param face        The index of the face.
+     * @param ray         The ray that intersects the face.
+     * @param t           The distance of the intersection along the ray.
+     * @param barycentric The barycentric coordinates of the intersection, as written by the intersection test.
+     * @return The intersection GeoPoint.
+     */
+    private GeoPoint hit(int face, Ray ray, double t, double[] barycentric) {
+        GeoPoint geoPoint = new GeoPoint(this, ray.getPoint(t), t);
+        geoPoint.index = face;
+        geoPoint.u = barycentric[0];
+        geoPoint.v = barycentric[1];
+        return geoPoint;
+    }
+
+    /**
+     * Returns the normal of the face a point found by the mesh is on, by the index of the face kept with the point.
+     *
+     * @param geoPoint The point found on the mesh.
+     * @return The normal of the face of the point.
+     */
+    @Override
+    protected Vector getGeoNormal(GeoPoint geoPoint) {
+        return geoPoint.index < 0 ? getNormal(geoPoint.point) : faceNormal(geoPoint.index);
+    }
+
+    /**
+     * Returns the normal of the face the point is on. the points found by the mesh keep the index of their face,
+     * so this searches all the faces only for points that were found otherwise.
+     *
+     * @param p The point on the mesh.
+     * @return The normal of the face nearest to the point.
+     */
+    @Override
+    public Vector getNormal(Point p) {
+        double px = p.getX(), py = p.getY(), pz = p.getZ();
+        int nearest = 0;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int f = 0; f < getFaceCount(); f++) {
+            double distance = distanceSquared(f, px, py, pz);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = f;
+            }
+        }
+        return faceNormal(nearest);
+    }
+
+    /**
+     * Calculates the squared distance of a point from a face, by the nearest of the face's plane
+     * (when the point is over the face) and its vertices.
+     *
+     * @param face The index of the face.
+     * @param px   The x coordinate of the point.
+     * @param py   The y coordinate of the point.
+     * @param pz   The z coordinate of the point.
+     * @return The squared distance, positive infinity for faces of no area.
+     */
+    private double distanceSquared(int face, double px, double py, double pz) {
+        int v0 = 3 * faces[3 * face], v1 = 3 * faces[3 * face + 1], v2 = 3 * faces[3 * face + 2];
+        double e1x = vertices[v1] - vertices[v0], e1y = vertices[v1 + 1] - vertices[v0 + 1], e1z = vertices[v1 + 2] - vertices[v0 + 2];
+        double e2x = vertices[v2] - vertices[v0], e2y = vertices[v2 + 1] - vertices[v0 + 1], e2z = vertices[v2 + 2] - vertices[v0 + 2];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        double area2 = nx * nx + ny * ny + nz * nz;
+        if (area2 == 0)
+            return Double.POSITIVE_INFINITY;
+        double wx = px - vertices[v0], wy = py - vertices[v0 + 1], wz = pz - vertices[v0 + 2];
+        // the barycentric coordinates of the projection of the point on the plane of the face
+        double u = ((wy * e2z - wz * e2y) * nx + (wz * e2x - wx * e2z) * ny + (wx * e2y - wy * e2x) * nz) / area2;
+        double v = ((e1y * wz - e1z * wy) * nx + (e1z * wx - e1x * wz) * ny + (e1x * wy - e1y * wx) * nz) / area2;
+        if (u >= 0 && v >= 0 && u + v <= 1) {
+            double height = wx * nx + wy * ny + wz * nz;
+            return height * height / area2;
+        }
+        double d1x = px - vertices[v1], d1y = py - vertices[v1 + 1], d1z = pz - vertices[v1 + 2];
+        double d2x = px - vertices[v2], d2y = py - vertices[v2 + 1], d2z = pz - vertices[v2 + 2];
+        return Math.min(wx * wx + wy * wy + wz * wz,
+                Math.min(d1x * d1x + d1y * d1y + d1z * d1z, d2x * d2x + d2y * d2y + d2z * d2z));
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with a face (Moller-Trumbore).
+     * as with a {@link Triangle}, a ray through an edge or a vertex of the face, or parallel to it,
+     * does not intersect it.
+     *
+     * @param face        The index of the face.
+     * @param ray         The ray.
+     * @param dx          The x coordinate of the direction of the ray.
+     * @param dy          The y coordinate of the direction of the ray.
+     * @param dz          The z coordinate of the direction of the ray.
+     * @param barycentric An array of at least two values that the barycentric coordinates of the intersection
+     *                    (the weights of the second and the third vertices of the face) are written to, or null.
+     * @return The distance to the intersection, or positive infinity if the ray does not intersect the face.
+     */
+    private double intersect(int face, Ray ray, double dx, double dy, double dz, double[] barycentric) {
+        int v0 = 3 * faces[3 * face], v1 = 3 * faces[3 * face + 1], v2 = 3 * faces[3 * face + 2];
+        double e1x = vertices[v1] - vertices[v0], e1y = vertices[v1 + 1] - vertices[v0 + 1], e1z = vertices[v1 + 2] - vertices[v0 + 2];
+        double e2x = vertices[v2] - vertices[v0], e2y = vertices[v2 + 1] - vertices[v0 + 1], e2z = vertices[v2 + 2] - vertices[v0 + 2];
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det * inverseNormalLengths[face]))
+            return Double.POSITIVE_INFINITY;
+        double inv = 1 / det;
+        double sx = ray.getOriginX() - vertices[v0], sy = ray.getOriginY() - vertices[v0 + 1], sz = ray.getOriginZ() - vertices[v0 + 2];
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0 || u >= 1)
+            return Double.POSITIVE_INFINITY;
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (v <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        if (t <= 0)
+            return Double.POSITIVE_INFINITY;
+        if (barycentric != null) {
+            barycentric[0] = u;
+            barycentric[1] = v;
+        }
+        return t;
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters the bounds of a node.
+     *
+     * @param node        The node.
+     * @param ray         The ray.
+     * @param maxDistance The distance beyond which the node is ignored.
+     * @return The entry distance, or positive infinity if the ray misses the node closer than maxDistance.
+     */
+    private double entryDistance(int node, Ray ray, double maxDistance) {
+        int b = 6 * node;
+        return BoundingBox.entryDistance(nodeBounds[b], nodeBounds[b + 1], nodeBounds[b + 2],
+                nodeBounds[b + 3], nodeBounds[b + 4], nodeBounds[b + 5], ray, 0, maxDistance);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        if (entryDistance(0, ray, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY)
+            return null;
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        List<GeoPoint> result = null;
+        double[] barycentric = new double[2];
+        int[] stack = stacks.get();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int first = nodes[4 * node];
+            for (int f = first; f < first + nodes[4 * node + 1]; f++) {
+                double t = intersect(f, ray, dx, dy, dz, barycentric);
+                if (t == Double.POSITIVE_INFINITY)
+                    continue;
+                if (result == null)
+                    result = new ArrayList<>();
+                result.add(hit(f, ray, t, barycentric));
+            }
+            int firstChild = nodes[4 * node + 2];
+            for (int c = firstChild; c < firstChild + nodes[4 * node + 3]; c++)
+                if (entryDistance(c, ray, Double.POSITIVE_INFINITY) != Double.POSITIVE_INFINITY)
+                    stack[top++] = c;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the faces. its point is calculated once at the end.
+     *
+     * @param ray         The ray to intersect with the mesh.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @return The closest intersection GeoPoint closer than maxDistance, or null if there is none.
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        int[] stack = stacks.get();
+        if (findClosestDistance(ray, maxDistance, stack) == Double.POSITIVE_INFINITY)
+            return null;
+        // the closest face is tested once more, for the barycentric coordinates of its intersection
+        int face = stack[0];
+        Vector dir = ray.getDir();
+        double[] barycentric = new double[2];
+        double t = intersect(face, ray, dir.getX(), dir.getY(), dir.getZ(), barycentric);
+        return hit(face, ray, t, barycentric);
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        return findClosestDistance(ray, maxDistance, stacks.get());
+    }
+
+    /**
+     * Finds the distance to the closest intersection of a ray with the faces, visiting the nodes nearest first.
+     * only the distance and the face of the closest intersection are kept during the traversal.
+     *
+     * @param ray         The ray to intersect with the mesh.
+     * @param maxDistance The distance beyond which intersections are ignored.
+     * @param stack       The node stack of the thread. the index of the closest face is left at its bottom.
+     * @return The distance to the closest intersection closer than maxDistance, or positive infinity if there is none.
+     */
+    private double findClosestDistance(Ray ray, double maxDistance, int[] stack) {
+        double closestDistance = maxDistance;
+        int closestFace = -1;
+        double rootDistance = entryDistance(0, ray, closestDistance);
+        if (rootDistance == Double.POSITIVE_INFINITY)
+            return Double.POSITIVE_INFINITY;
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double[] distances = distanceStacks.get();
+        int top = 0;
+        stack[top] = 0;
+        distances[top++] = rootDistance;
+        while (top > 0) {
+            int node = stack[--top];
+            // a closer intersection may have been found since the node was pushed
+            if (distances[top] >= closestDistance)
+                continue;
+            int first = nodes[4 * node];
+            for (int f = first; f < first + nodes[4 * node + 1]; f++) {
+                double t = intersect(f, ray, dx, dy, dz, null);
+                if (t < closestDistance) {
+                    closestDistance = t;
+                    closestFace = f;
+                }
+            }
+            if (nodes[4 * node + 3] == 0)
+                continue;
+            int firstChild = nodes[4 * node + 2];
+            double near = entryDistance(firstChild, ray, closestDistance);
+            double far = entryDistance(firstChild + 1, ray, closestDistance);
+            int nearChild = firstChild, farChild = firstChild + 1;
+            if (far < near) {
+                double distance = near;
+                near = far;
+                far = distance;
+                nearChild = farChild;
+                farChild = firstChild;
+            }
+            // the far child is pushed first, so the near child is on the top of the stack
+            if (far != Double.POSITIVE_INFINITY) {
+                stack[top] = farChild;
+                distances[top++] = far;
+            }
+            if (near != Double.POSITIVE_INFINITY) {
+                stack[top] = nearChild;
+                distances[top++] = near;
+            }
+        }
+        if (closestFace == -1)
+            return Double.POSITIVE_INFINITY;
+        stack[0] = closestFace;
+        return closestDistance;
+    }
+
+    /**
+     * Finds the transmittance of the mesh along a ray: the transparency coefficient of the mesh,
+     * once for every face the ray crosses closer than the distance. the nodes are visited in any order,
+     * and the traversal stops as soon as the ray is blocked.
+     *
+     * @param ray              The ray to intersect with the mesh.
+     * @param maxDistance      The distance beyond which intersections are ignored.
+     * @param minTransmittance The transmittance below which the ray is considered blocked.
+     * @return The transmittance along the ray, or Double3.ZERO once it drops below minTransmittance.
+     */
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        if (entryDistance(0, ray, maxDistance) == Double.POSITIVE_INFINITY)
+            return Double3.ONE;
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        Double3 kT = getMaterial().kT;
+        Double3 transmittance = Double3.ONE;
+        int[] stack = stacks.get();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int first = nodes[4 * node];
+            for (int f = first; f < first + nodes[4 * node + 1]; f++) {
+                if (intersect(f, ray, dx, dy, dz, null) < maxDistance) {
+                    transmittance = transmittance.product(kT);
+                    if (transmittance.lowerThan(minTransmittance))
+                        return Double3.ZERO;
+                }
+            }
+            int firstChild = nodes[4 * node + 2];
+            for (int c = firstChild; c < firstChild + nodes[4 * node + 3]; c++)
+                if (entryDistance(c, ray, maxDistance) != Double.POSITIVE_INFINITY)
+                    stack[top++] = c;
+        }
+        return transmittance;
+    }
+}
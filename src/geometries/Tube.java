@@ -1,12 +1,15 @@
 package geometries;
 
-import primitives.BoundingBox;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * The Tube class represents a tube in 3D space, with a radius and an axis ray. It inherits from the RadialGeometry class.
  */
@@ -26,16 +29,7 @@ public class Tube extends RadialGeometry {
     public Tube(double r, Ray axisRay) {
         super(r);
         this.axisRay = axisRay;
-
-        Point center = axisRay.getP0();
-        double minX = center.getX() - radius;
-        double minY = Double.NEGATIVE_INFINITY;
-        double minZ = center.getZ() - radius;
-        double maxX = center.getX() + radius;
-        double maxY = Double.POSITIVE_INFINITY;
-        double maxZ = center.getZ() + radius;
-
-        this.boundingBox = new BoundingBox(new Point(minX, minY, minZ), new Point(maxX, maxY, maxZ));
+        // an infinite tube is unbounded along its axis, so it has no bounding box
     }
 
     /**
@@ -43,7 +37,6 @@ public class Tube extends RadialGeometry {
      *
      * @return The axis ray of the Tube object.
      */
-    @SuppressWarnings("unused")
     public Ray getAxisRay() {
         return axisRay;
     }
@@ -67,8 +60,90 @@ public class Tube extends RadialGeometry {
                 ", radius= " + radius;
     }
 
+    /**
+     * Calculates the distance along a ray to its first intersection with the tube between the given heights.
+     *
+     * @param ray         The ray to intersect with the tube.
+     * @param minDistance The distance before which (and at which) intersections are ignored.
+     * @param minHeight   The height along the axis, from the head of the axis ray, below which (and at which)
+     *                    intersections are ignored.
+     * @param maxHeight   The height along the axis above which (and at which) intersections are ignored.
+     * @return The distance to the intersection, or positive infinity if there is none.
+     */
+    protected double intersect(Ray ray, double minDistance, double minHeight, double maxHeight) {
+        Vector dir = ray.getDir(), axis = axisRay.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ax = axis.getX(), ay = axis.getY(), az = axis.getZ();
+        double wx = ray.getOriginX() - axisRay.getOriginX();
+        double wy = ray.getOriginY() - axisRay.getOriginY();
+        double wz = ray.getOriginZ() - axisRay.getOriginZ();
+        double da = dx * ax + dy * ay + dz * az, wa = wx * ax + wy * ay + wz * az;
+        // the quadratic of the parts of the direction and of the offset that are orthogonal to the axis
+        double a = 1 - da * da;
+        if (isZero(a))
+            return Double.POSITIVE_INFINITY;
+        double b = dx * wx + dy * wy + dz * wz - da * wa;
+        double c = wx * wx + wy * wy + wz * wz - wa * wa - radiusSquared;
+        double discriminant = alignZero(b * b - a * c);
+        if (discriminant <= 0)
+            return Double.POSITIVE_INFINITY;
+        double root = Math.sqrt(discriminant);
+        double t = (-b - root) / a;
+        if (alignZero(t) > 0 && t > minDistance) {
+            double height = wa + t * da;
+            if (alignZero(height - minHeight) > 0 && alignZero(height - maxHeight) < 0)
+                return t;
+        }
+        t = (-b + root) / a;
+        if (alignZero(t) > 0 && t > minDistance) {
+            double height = wa + t * da;
+            if (alignZero(height - minHeight) > 0 && alignZero(height - maxHeight) < 0)
+                return t;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calculates the distance along a ray to its first intersection with the tube beyond the given distance.
+     *
+     * @param ray         The ray to intersect with the tube.
+     * @param minDistance The distance before which (and at which) intersections are ignored.
+     * @return The distance to the intersection, or positive infinity if there is none.
+     */
+    public double intersect(Ray ray, double minDistance) {
+        return intersect(ray, minDistance, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        return null;
+        double t1 = intersect(ray, 0);
+        if (t1 == Double.POSITIVE_INFINITY)
+            return null;
+        double t2 = intersect(ray, t1);
+        return t2 == Double.POSITIVE_INFINITY ? List.of(new GeoPoint(this, ray.getPoint(t1), t1)) :
+                List.of(new GeoPoint(this, ray.getPoint(t1), t1), new GeoPoint(this, ray.getPoint(t2), t2));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, 0);
+        return t < maxDistance ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, 0);
+        return t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        double t = intersect(ray, 0);
+        if (t >= maxDistance)
+            return Double3.ONE;
+        Double3 kT = getMaterial().kT;
+        if (intersect(ray, t) < maxDistance)
+            kT = kT.product(kT);
+        return kT.lowerThan(minTransmittance) ? Double3.ZERO : kT;
     }
-}
\ No newline at end of file
+}
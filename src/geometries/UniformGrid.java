@@ -0,0 +1,444 @@
+package geometries;
+
+import primitives.BoundingBox;
+import primitives.Double3;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The UniformGrid class represents geometries stored in a uniform grid of cells, which a ray walks through
+ * cell by cell (3D-DDA).
+ * it is an alternative to the hierarchical tree of {@link Geometries} for many similar-sized geometries that are
+ * spread evenly, such as particle fields or tiled floors: it is built in linear time, and a ray only checks the
+ * geometries of the cells it passes through.
+ * the geometries must be finitely bounded, and the grid cannot be changed once it is built.
+ */
+public class UniformGrid extends Intersectable {
+    /**
+     * The average number of geometries per cell the resolution is chosen for.
+     */
+    private static final double DENSITY = 3;
+
+    /**
+     * The maximum number of cells along each axis.
+     */
+    private static final int MAX_RESOLUTION = 256;
+
+    /**
+     * The geometries of the grid.
+     */
+    private final Intersectable[] primitives;
+
+    /**
+     * The bounding box of the grid.
+     */
+    private final BoundingBox boundingBox;
+
+    /**
+     * The minimum corner of the grid.
+     */
+    private final double minX, minY, minZ;
+
+    /**
+     * The number of cells along each axis.
+     */
+    private final int nx, ny, nz;
+
+    /**
+     * The size of a cell along each axis.
+     */
+    private final double cellX, cellY, cellZ;
+
+    /**
+     * The inverse of the size of a cell along each axis, 0 along a flat axis.
+     */
+    private final double invCellX, invCellY, invCellZ;
+
+    /**
+     * The start of the geometries of each cell in cellPrimitives, with an extra entry for the end of the last cell.
+     */
+    private final int[] cellStart;
+
+    /**
+     * The indices of the geometries of the cells, cell after cell.
+     */
+    private final int[] cellPrimitives;
+
+    /**
+     * The walk of the current ray through the grid, for each rendering thread, so a query allocates nothing.
+     */
+    private final ThreadLocal<Walk> walks;
+
+    /**
+     * Constructs a UniformGrid of the specified geometries.
+     * the resolution is chosen from the number of geometries and the bounds of the grid.
+     *
+     * @param geometries The geometries of the grid.
+     * @throws IllegalArgumentException if there are no geometries or one of them is not finitely bounded
+     */
+    public UniformGrid(Intersectable... geometries) {
+        this(List.of(geometries));
+    }
+
+    /**
+     * Constructs a UniformGrid of the specified geometries.
+     * the resolution is chosen from the number of geometries and the bounds of the grid.
+     *
+     * @param geometries The geometries of the grid.
+     * @throws IllegalArgumentException if there are no geometries or one of them is not finitely bounded
+     */
+    public UniformGrid(List<Intersectable> geometries) {
+        if (geometries.isEmpty())
+            throw new IllegalArgumentException("Uniform grid must have geometries");
+        primitives = geometries.toArray(new Intersectable[0]);
+        int n = primitives.length;
+
+        double[] bounds = new double[6 * n];
+        double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < n; i++) {
+            BoundingBox primitiveBox = primitives[i].getBoundingBox();
+            if (primitiveBox == null || !primitiveBox.isFinite())
+                throw new IllegalArgumentException("Uniform grid geometries must be finitely bounded");
+            FlatBvh.setBounds(bounds, 6 * i, primitiveBox);
+            for (int axis = 0; axis < 3; axis++) {
+                box[axis] = Math.min(box[axis], bounds[6 * i + axis]);
+                box[axis + 3] = Math.max(box[axis + 3], bounds[6 * i + axis + 3]);
+            }
+        }
+        boundingBox = new BoundingBox(box[0], box[1], box[2], box[3], box[4], box[5]);
+        minX = box[0];
+        minY = box[1];
+        minZ = box[2];
+
+        int[] resolution = resolution(box[3] - box[0], box[4] - box[1], box[5] - box[2], n);
+        nx = resolution[0];
+        ny = resolution[1];
+        nz = resolution[2];
+        cellX = (box[3] - box[0]) / nx;
+        cellY = (box[4] - box[1]) / ny;
+        cellZ = (box[5] - box[2]) / nz;
+        invCellX = cellX > 0 ? 1 / cellX : 0;
+        invCellY = cellY > 0 ? 1 / cellY : 0;
+        invCellZ = cellZ > 0 ? 1 / cellZ : 0;
+
+        // counting sort of the (geometry, cell) pairs by cell: count, prefix sum, then fill
+        cellStart = new int[nx * ny * nz + 1];
+        for (int i = 0; i < n; i++)
+            forEachCell(bounds, i, (cell, primitive) -> cellStart[cell + 1]++);
+        for (int cell = 0; cell < nx * ny * nz; cell++)
+            cellStart[cell + 1] += cellStart[cell];
+        cellPrimitives = new int[cellStart[nx * ny * nz]];
+        int[] next = Arrays.copyOf(cellStart, nx * ny * nz);
+        for (int i = 0; i < n; i++)
+            forEachCell(bounds, i, (cell, primitive) -> cellPrimitives[next[cell]++] = primitive);
+
+        walks = ThreadLocal.withInitial(Walk::new);
+    }
+
+    /**
+     * Calculates the number of cells along each axis, so that cells are roughly cubes and there are
+     * about DENSITY geometries per cell. a flat axis has a single cell.
+     *
+     * @param dx the extent of the grid along the x axis
+     * @param dy the extent of the grid along the y axis
+     * @param dz the extent of the grid along the z axis
+     * @param n  the number of geometries
+     * @return the number of cells along the x, y and z axes
+     */
+    private static int[] resolution(double dx, double dy, double dz, int n) {
+        double[] extents = {dx, dy, dz};
+        double measure = 1;
+        int dimensions = 0;
+        for (double extent : extents) {
+            if (extent > 0) {
+                measure *= extent;
+                dimensions++;
+            }
+        }
+        int[] resolution = {1, 1, 1};
+        if (dimensions == 0)
+            return resolution;
+        double cellSize = Math.pow(measure * DENSITY / n, 1.0 / dimensions);
+        for (int axis = 0; axis < 3; axis++) {
+            if (extents[axis] > 0)
+                resolution[axis] = (int) Math.max(1, Math.min(MAX_RESOLUTION, Math.round(extents[axis] / cellSize)));
+        }
+        return resolution;
+    }
+
+    /**
+     * An action on a cell that a geometry overlaps.
+     */
+    private interface CellAction {
+        /**
+         * Acts on a cell that a geometry overlaps.
+         *
+         * @param cell      the index of the cell
+         * @param primitive the index of the geometry
+         */
+        void accept(int cell, int primitive);
+    }
+
+    /**
+     * Calls an action for every cell that the bounding box of a geometry overlaps.
+     *
+     * @param bounds    the bounds of the geometries
+     * @param primitive the index of the geometry
+     * @param action    the action to call
+     */
+    private void forEachCell(double[] bounds, int primitive, CellAction action) {
+        int offset = 6 * primitive;
+        int x0 = cellIndex(bounds[offset], minX, invCellX, nx);
+        int y0 = cellIndex(bounds[offset + 1], minY, invCellY, ny);
+        int z0 = cellIndex(bounds[offset + 2], minZ, invCellZ, nz);
+        int x1 = cellIndex(bounds[offset + 3], minX, invCellX, nx);
+        int y1 = cellIndex(bounds[offset + 4], minY, invCellY, ny);
+        int z1 = cellIndex(bounds[offset + 5], minZ, invCellZ, nz);
+        for (int z = z0; z <= z1; z++)
+            for (int y = y0; y <= y1; y++)
+                for (int x = x0; x <= x1; x++)
+                    action.accept(x + nx * (y + ny * z), primitive);
+    }
+
+    /**
+     * Calculates the index along an axis of the cell that contains a coordinate.
+     *
+     * @param coordinate the coordinate
+     * @param min        the minimum of the grid along the axis
+     * @param invCell    the inverse of the cell size along the axis
+     * @param count      the number of cells along the axis
+     * @return the index of the cell, clamped to the grid
+     */
+    private static int cellIndex(double coordinate, double min, double invCell, int count) {
+        int index = (int) ((coordinate - min) * invCell);
+        return index < 0 ? 0 : (index >= count ? count - 1 : index);
+    }
+
+    /**
+     * getter for the number of cells along each axis
+     *
+     * @return the number of cells along the x, y and z axes
+     */
+    public int[] getResolution() {
+        return new int[]{nx, ny, nz};
+    }
+
+    /**
+     * getter for the geometries of the grid
+     *
+     * @return the geometries of the grid
+     */
+    List<Intersectable> getGeometries() {
+        return List.of(primitives);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    /**
+     * The walk of a ray through the cells of the grid (3D-DDA), nearest first, that meets every geometry of the
+     * cells once. a walk is kept for each rendering thread and restarted for every ray.
+     */
+    private final class Walk {
+        /**
+         * The last ray that checked each geometry (mailboxing) - a geometry that overlaps several cells is checked
+         * once per ray.
+         */
+        private final int[] mailbox = new int[primitives.length];
+
+        /**
+         * The number of the current ray.
+         */
+        private int stamp;
+
+        /**
+         * The indices of the current cell.
+         */
+        private int x, y, z;
+
+        /**
+         * The direction of the steps along each axis: 1, -1 or 0.
+         */
+        private int stepX, stepY, stepZ;
+
+        /**
+         * The distances along the ray to the next cell boundary along each axis.
+         */
+        private double nextX, nextY, nextZ;
+
+        /**
+         * The distances along the ray between two cell boundaries along each axis.
+         */
+        private double deltaX, deltaY, deltaZ;
+
+        /**
+         * The position of the next geometry of the current cell in cellPrimitives, and the end of the cell.
+         */
+        private int position, end;
+
+        /**
+         * The index of the closest geometry found by the last closest intersection walk.
+         */
+        private int closest;
+
+        /**
+         * Starts the walk of a ray at the cell it enters the grid through.
+         *
+         * @param ray         the ray
+         * @param maxDistance the distance beyond which the walk stops
+         * @return true if the ray enters the grid closer than maxDistance, false otherwise
+         */
+        boolean start(Ray ray, double maxDistance) {
+            double t = boundingBox.entryDistance(ray, 0, maxDistance);
+            if (t == Double.POSITIVE_INFINITY)
+                return false;
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(mailbox, 0);
+                stamp = 1;
+            }
+
+            Vector dir = ray.getDir();
+            double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+            double ox = ray.getOriginX(), oy = ray.getOriginY(), oz = ray.getOriginZ();
+            x = cellIndex(ox + t * dx, minX, invCellX, nx);
+            y = cellIndex(oy + t * dy, minY, invCellY, ny);
+            z = cellIndex(oz + t * dz, minZ, invCellZ, nz);
+
+            stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+            stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+            stepZ = dz > 0 ? 1 : (dz < 0 ? -1 : 0);
+            nextX = stepX == 0 ? Double.POSITIVE_INFINITY : (minX + (x + (stepX > 0 ? 1 : 0)) * cellX - ox) * ray.getInvDirX();
+            nextY = stepY == 0 ? Double.POSITIVE_INFINITY : (minY + (y + (stepY > 0 ? 1 : 0)) * cellY - oy) * ray.getInvDirY();
+            nextZ = stepZ == 0 ? Double.POSITIVE_INFINITY : (minZ + (z + (stepZ > 0 ? 1 : 0)) * cellZ - oz) * ray.getInvDirZ();
+            deltaX = stepX == 0 ? 0 : cellX * Math.abs(ray.getInvDirX());
+            deltaY = stepY == 0 ? 0 : cellY * Math.abs(ray.getInvDirY());
+            deltaZ = stepZ == 0 ? 0 : cellZ * Math.abs(ray.getInvDirZ());
+            enterCell();
+            return true;
+        }
+
+        /**
+         * Points the walk at the geometries of the current cell.
+         */
+        private void enterCell() {
+            int cell = x + nx * (y + ny * z);
+            position = cellStart[cell];
+            end = cellStart[cell + 1];
+        }
+
+        /**
+         * Returns the next geometry the ray meets for the first time. the walk ends when the ray leaves the grid or
+         * enters a cell beyond the limit.
+         *
+         * @param limit the distance beyond which the walk stops
+         * @return the index of the geometry, or -1 if the walk has ended
+         */
+        int next(double limit) {
+            while (true) {
+                while (position < end) {
+                    int primitive = cellPrimitives[position++];
+                    if (mailbox[primitive] != stamp) {
+                        mailbox[primitive] = stamp;
+                        return primitive;
+                    }
+                }
+
+                // the cell is left through the nearest of the three next cell boundaries
+                double exit = Math.min(nextX, Math.min(nextY, nextZ));
+                if (exit >= limit)
+                    return -1;
+                if (nextX == exit) {
+                    x += stepX;
+                    if (x < 0 || x >= nx) return -1;
+                    nextX += deltaX;
+                } else if (nextY == exit) {
+                    y += stepY;
+                    if (y < 0 || y >= ny) return -1;
+                    nextY += deltaY;
+                } else {
+                    z += stepZ;
+                    if (z < 0 || z >= nz) return -1;
+                    nextZ += deltaZ;
+                }
+                enterCell();
+            }
+        }
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Walk walk = walks.get();
+        if (!walk.start(ray, Double.POSITIVE_INFINITY))
+            return null;
+        List<GeoPoint> intersections = new LinkedList<>();
+        for (int i = walk.next(Double.POSITIVE_INFINITY); i != -1; i = walk.next(Double.POSITIVE_INFINITY)) {
+            List<GeoPoint> points = primitives[i].findGeoIntersections(ray);
+            if (points != null)
+                intersections.addAll(points);
+        }
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Walk walk = walks.get();
+        if (findClosestDistance(ray, maxDistance, walk) == Double.POSITIVE_INFINITY)
+            return null;
+        // only the point of the closest geometry is constructed
+        return primitives[walk.closest].findClosestGeoIntersection(ray, maxDistance);
+    }
+
+    @Override
+    protected double findClosestDistanceHelper(Ray ray, double maxDistance) {
+        return findClosestDistance(ray, maxDistance, walks.get());
+    }
+
+    /**
+     * Finds the distance to the closest intersection of a ray with the geometries of the grid, by the distances of
+     * the intersections alone.
+     *
+     * @param ray         the ray
+     * @param maxDistance the distance beyond which intersections are ignored
+     * @param walk        the walk of the thread. the index of the closest geometry is left in it.
+     * @return the distance to the closest intersection closer than maxDistance, or positive infinity if there is none
+     */
+    private double findClosestDistance(Ray ray, double maxDistance, Walk walk) {
+        if (!walk.start(ray, maxDistance))
+            return Double.POSITIVE_INFINITY;
+        double closestDistance = maxDistance;
+        int closest = -1;
+        // no cell beyond the closest point can hold a closer one
+        for (int i = walk.next(closestDistance); i != -1; i = walk.next(closestDistance)) {
+            double t = primitives[i].findClosestDistance(ray, closestDistance);
+            if (t < closestDistance) {
+                closestDistance = t;
+                closest = i;
+            }
+        }
+        if (closest == -1)
+            return Double.POSITIVE_INFINITY;
+        walk.closest = closest;
+        return closestDistance;
+    }
+
+    @Override
+    protected Double3 findTransmittanceHelper(Ray ray, double maxDistance, double minTransmittance) {
+        Walk walk = walks.get();
+        if (!walk.start(ray, maxDistance))
+            return Double3.ONE;
+        Double3 transmittance = Double3.ONE;
+        for (int i = walk.next(maxDistance); i != -1; i = walk.next(maxDistance)) {
+            transmittance = transmittance.product(primitives[i].findTransmittance(ray, maxDistance, minTransmittance));
+            if (transmittance.lowerThan(minTransmittance))
+                return Double3.ZERO;
+        }
+        return transmittance;
+    }
+}
@@ -23,6 +23,15 @@ public class DirectionalLight extends Light implements LightSource{
         direction = d.normalize();
     }
 
+    /**
+     * getter for the direction
+     *
+     * @return the direction of the light
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     @Override
     public Color getIntensity(Point p) {
         return getIntensity();
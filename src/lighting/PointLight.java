@@ -2,7 +2,6 @@ package lighting;
 
 import primitives.*;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.isZero;
@@ -61,6 +60,42 @@ public class PointLight extends Light implements LightSource {
         this.radius = radius;
     }
 
+    /**
+     * getter for the position
+     *
+     * @return the position of the light
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    /**
+     * getter for kC
+     *
+     * @return the constant attenuation factor
+     */
+    public double getKC() {
+        return kC;
+    }
+
+    /**
+     * getter for kL
+     *
+     * @return the linear attenuation factor
+     */
+    public double getKL() {
+        return kL;
+    }
+
+    /**
+     * getter for kQ
+     *
+     * @return the quadratic attenuation factor
+     */
+    public double getKQ() {
+        return kQ;
+    }
+
     /**
      * setter for kC
      *
@@ -105,7 +140,9 @@ public class PointLight extends Light implements LightSource {
 
     @Override
     public Vector getL(Point p) {
-        return p.subtract(position).normalize();
+        double dx = p.getX() - position.getX(), dy = p.getY() - position.getY(), dz = p.getZ() - position.getZ();
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        return new Vector(dx / length, dy / length, dz / length);
     }
 
     @Override
@@ -121,9 +158,7 @@ public class PointLight extends Light implements LightSource {
     @Override
     public List<Point> getGridPoints(Vector l) {
         if (radius == 0) {
-            List<Point> li = new LinkedList<>();
-            li.add(position);
-            return li;
+            return List.of(position);
         } else {
             Vector v = !(isZero(l.getX()) || isZero(l.getY())) ? new Vector(-l.getY(), l.getX(), 0) :
                     new Vector(1, 1, 0).normalize();
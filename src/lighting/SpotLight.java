@@ -26,7 +26,15 @@ public class SpotLight extends PointLight {
      *
      * @return the direction of the light
      */
-    @SuppressWarnings("unused")
+    public Vector getDirection() {
+        return direction;
+    }
+
+    /**
+     * getter for the target points of the light
+     *
+     * @return the target points of the light, null if the light was constructed without a radius
+     */
     public List<Point> getTargetPoints() {
         return targetPoints;
     }
@@ -66,12 +74,14 @@ public class SpotLight extends PointLight {
 
     @Override
     public Color getIntensity(Point p) {
-        Vector l = getL(p);
-
-        if (Util.alignZero(l.dotProduct(direction)) <= 0)
+        Point position = getPosition();
+        double dx = p.getX() - position.getX(), dy = p.getY() - position.getY(), dz = p.getZ() - position.getZ();
+        double cos = (dx * direction.getX() + dy * direction.getY() + dz * direction.getZ())
+                / Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (Util.alignZero(cos) <= 0)
             return Color.BLACK;
 
-        return super.getIntensity(p).scale(l.dotProduct(direction));
+        return super.getIntensity(p).scale(cos);
     }
 
     @Override
@@ -2,7 +2,7 @@ package primitives;
 
 
 import java.util.List;
-import java.util.LinkedList;
+import java.util.ArrayList;
 
 /**
  * abstract Class for create BlackBoard of points
@@ -45,29 +45,37 @@ public abstract class BlackBoard {
         if ((xy == 1) || (radius == 0.0))
             return List.of(center);
 
-        List<Point> pointList = new LinkedList<>();
+        List<Point> pointList = new ArrayList<>(xy * xy);
 
         double rectSize = 2 * radius;
         double radius2 = radius * radius;
-        Point pIJ;
         double rxy = rectSize / xy;
         double yI;
         double xJ;
+        double centerX = center.getX(), centerY = center.getY(), centerZ = center.getZ();
         for (int i = 0; i < xy; i++) {
             for (int j = 0; j < xy; j++) {
                 yI = Util.alignZero((i - (xy - 1) / 2.0) * rxy); // math.random to make jitter
                 xJ = Util.alignZero((j - (xy - 1) / 2.0) * rxy);
 
-                pIJ = center;
-                if (xJ != 0) pIJ = pIJ.add(vRight.scale(xJ));
-                if (yI != 0) pIJ = pIJ.add(vUp.scale(yI));
+                // the cell is calculated on the coordinates, and only a cell inside the circle becomes a point
+                double x = centerX, y = centerY, z = centerZ;
+                if (xJ != 0) {
+                    x += vRight.getX() * xJ;
+                    y += vRight.getY() * xJ;
+                    z += vRight.getZ() * xJ;
+                }
+                if (yI != 0) {
+                    x += vUp.getX() * yI;
+                    y += vUp.getY() * yI;
+                    z += vUp.getZ() * yI;
+                }
 
-                double dist = pIJ.distanceSquared(center);
-                if (dist <= radius2)
-                    pointList.add(pIJ);
+                double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+                if (dx * dx + dy * dy + dz * dz <= radius2)
+                    pointList.add(xJ == 0 && yI == 0 ? center : new Point(x, y, z));
             }
         }
         return pointList;
     }
-
-}
\ No newline at end of file
+}
@@ -2,14 +2,9 @@ package primitives;
 
 public class BoundingBox {
     /**
-     * The minimum point of the BoundingBox.
+     * The coordinates of the minimum and maximum points, held inline rather than as points.
      */
-    private Point minPoint;
-
-    /**
-     * The maximum point of the BoundingBox.
-     */
-    private Point maxPoint;
+    private double minX, minY, minZ, maxX, maxY, maxZ;
 
     /**
      * Constructs an BoundingBox (AABB kind) with the given minimum and maximum points.
@@ -18,8 +13,26 @@ public class BoundingBox {
      * @param maxPoint The maximum point of the BoundingBox.
      */
     public BoundingBox(Point minPoint, Point maxPoint) {
-        this.minPoint = minPoint;
-        this.maxPoint = maxPoint;
+        this(minPoint.getX(), minPoint.getY(), minPoint.getZ(), maxPoint.getX(), maxPoint.getY(), maxPoint.getZ());
+    }
+
+    /**
+     * Constructs an BoundingBox (AABB kind) with the given coordinates of the minimum and maximum points.
+     *
+     * @param minX The x coordinate of the minimum point.
+     * @param minY The y coordinate of the minimum point.
+     * @param minZ The z coordinate of the minimum point.
+     * @param maxX The x coordinate of the maximum point.
+     * @param maxY The y coordinate of the maximum point.
+     * @param maxZ The z coordinate of the maximum point.
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
     }
 
     /**
@@ -29,55 +42,66 @@ public class BoundingBox {
      * @return True if the ray intersects with the BoundingBox, false otherwise.
      */
     public boolean intersectsWith(Ray ray) {
-        double tMin = Double.NEGATIVE_INFINITY;
-        double tMax = Double.POSITIVE_INFINITY;
-
-        Point p0 = ray.getP0();
-        Vector dir = ray.getDir();
-        // Check intersection with X slabs
-        double originX = p0.getX();
-        double dirX = dir.getX();
-        double invDirX = 1.0 / dirX;
-        double t1 = (minPoint.getX() - originX) * invDirX;
-        double t2 = (maxPoint.getX() - originX) * invDirX;
-        if (invDirX < 0) {
-            double temp = t1;
-            t1 = t2;
-            t2 = temp;
-        }
+        return entryDistance(ray, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters the BoundingBox (slab test),
+     * within an interval of distances from the ray's head.
+     *
+     * @param ray  The ray to check for intersection.
+     * @param tMin The start of the interval.
+     * @param tMax The end of the interval.
+     * @return The entry distance (tMin if the ray is already inside the BoundingBox at tMin),
+     * or positive infinity if the ray does not intersect the BoundingBox within the interval.
+     */
+    public double entryDistance(Ray ray, double tMin, double tMax) {
+        return entryDistance(minX, minY, minZ, maxX, maxY, maxZ, ray, tMin, tMax);
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters a box (slab test),
+     * within an interval of distances from the ray's head.
+     *
+     * @param minX The minimum x of the box.
+     * @param minY The minimum y of the box.
+     * @param minZ The minimum z of the box.
+     * @param maxX The maximum x of the box.
+     * @param maxY The maximum y of the box.
+     * @param maxZ The maximum z of the box.
+     * @param ray  The ray to check for intersection.
+     * @param tMin The start of the interval.
+     * @param tMax The end of the interval.
+     * @return The entry distance (tMin if the ray is already inside the box at tMin),
+     * or positive infinity if the ray does not intersect the box within the interval.
+     */
+    public static double entryDistance(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                       Ray ray, double tMin, double tMax) {
+        // the near and far slabs are picked by the direction signs, and the comparisons are
+        // written so a NaN (origin on a slab plane of a parallel ray) does not limit the interval
+        double invDir = ray.getInvDirX();
+        double origin = ray.getOriginX();
+        double t1 = ((ray.isNegX() ? maxX : minX) - origin) * invDir;
+        double t2 = ((ray.isNegX() ? minX : maxX) - origin) * invDir;
         tMin = (t1 > tMin) ? t1 : tMin;
         tMax = (t2 < tMax) ? t2 : tMax;
-        if (tMin > tMax) return false;
-
-        // Check intersection with Y slabs
-        double originY = p0.getY();
-        double dirY = dir.getY();
-        double invDirY = 1.0 / dirY;
-        t1 = (minPoint.getY() - originY) * invDirY;
-        t2 = (maxPoint.getY() - originY) * invDirY;
-        if (invDirY < 0) {
-            double temp = t1;
-            t1 = t2;
-            t2 = temp;
-        }
+        if (tMin > tMax) return Double.POSITIVE_INFINITY;
+
+        invDir = ray.getInvDirY();
+        origin = ray.getOriginY();
+        t1 = ((ray.isNegY() ? maxY : minY) - origin) * invDir;
+        t2 = ((ray.isNegY() ? minY : maxY) - origin) * invDir;
         tMin = (t1 > tMin) ? t1 : tMin;
         tMax = (t2 < tMax) ? t2 : tMax;
-        if (tMin > tMax) return false;
-
-        // Check intersection with Z slabs
-        double originZ = p0.getZ();
-        double dirZ = dir.getZ();
-        double invDirZ = 1.0 / dirZ;
-        t1 = (minPoint.getZ() - originZ) * invDirZ;
-        t2 = (maxPoint.getZ() - originZ) * invDirZ;
-        if (invDirZ < 0) {
-            double temp = t1;
-            t1 = t2;
-            t2 = temp;
-        }
+        if (tMin > tMax) return Double.POSITIVE_INFINITY;
+
+        invDir = ray.getInvDirZ();
+        origin = ray.getOriginZ();
+        t1 = ((ray.isNegZ() ? maxZ : minZ) - origin) * invDir;
+        t2 = ((ray.isNegZ() ? minZ : maxZ) - origin) * invDir;
         tMin = (t1 > tMin) ? t1 : tMin;
         tMax = (t2 < tMax) ? t2 : tMax;
-        return tMin <= tMax;
+        return tMin <= tMax ? tMin : Double.POSITIVE_INFINITY;
     }
 
     /**
@@ -87,20 +111,13 @@ public class BoundingBox {
      */
     public void expand(BoundingBox other) {
         // Expand the BoundingBox by including the bounds of another BoundingBox
-        Point otherMin = other.getMinPoint();
-        Point otherMax = other.getMaxPoint();
+        minX = (minX < other.minX) ? minX : other.minX;
+        minY = (minY < other.minY) ? minY : other.minY;
+        minZ = (minZ < other.minZ) ? minZ : other.minZ;
 
-        double newMinX = (minPoint.getX() < otherMin.getX()) ? minPoint.getX() : otherMin.getX();
-        double newMinY = (minPoint.getY() < otherMin.getY()) ? minPoint.getY() : otherMin.getY();
-        double newMinZ = (minPoint.getZ() < otherMin.getZ()) ? minPoint.getZ() : otherMin.getZ();
-
-        double newMaxX = (maxPoint.getX() > otherMax.getX()) ? maxPoint.getX() : otherMax.getX();
-        double newMaxY = (maxPoint.getY() > otherMax.getY()) ? maxPoint.getY() : otherMax.getY();
-        double newMaxZ = (maxPoint.getZ() > otherMax.getZ()) ? maxPoint.getZ() : otherMax.getZ();
-
-
-        minPoint = new Point(newMinX, newMinY, newMinZ);
-        maxPoint = new Point(newMaxX, newMaxY, newMaxZ);
+        maxX = (maxX > other.maxX) ? maxX : other.maxX;
+        maxY = (maxY > other.maxY) ? maxY : other.maxY;
+        maxZ = (maxZ > other.maxZ) ? maxZ : other.maxZ;
     }
 
     /**
@@ -115,27 +132,81 @@ public class BoundingBox {
         double pointY = point.getY();
         double pointZ = point.getZ();
 
-        return pointX >= minPoint.getX() && pointX <= maxPoint.getX() &&
-                pointY >= minPoint.getY() && pointY <= maxPoint.getY() &&
-                pointZ >= minPoint.getZ() && pointZ <= maxPoint.getZ();
+        return pointX >= minX && pointX <= maxX &&
+                pointY >= minY && pointY <= maxY &&
+                pointZ >= minZ && pointZ <= maxZ;
     }
 
     /**
-     * Gets the minimum point of the BoundingBox.
+     * Gets the minimum point of the BoundingBox, as a new point.
      *
      * @return The minimum point of the BoundingBox.
      */
     public Point getMinPoint() {
-        return minPoint;
+        return new Point(minX, minY, minZ);
     }
 
     /**
-     * Gets the maximum point of the BoundingBox.
+     * Gets the maximum point of the BoundingBox, as a new point.
      *
      * @return The maximum point of the BoundingBox.
      */
     public Point getMaxPoint() {
-        return maxPoint;
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Gets the x coordinate of the min point of the BoundingBox.
+     *
+     * @return The x coordinate of the min point.
+     */
+    public double getMinX() {
+        return minX;
+    }
+
+    /**
+     * Gets the y coordinate of the min point of the BoundingBox.
+     *
+     * @return The y coordinate of the min point.
+     */
+    public double getMinY() {
+        return minY;
+    }
+
+    /**
+     * Gets the z coordinate of the min point of the BoundingBox.
+     *
+     * @return The z coordinate of the min point.
+     */
+    public double getMinZ() {
+        return minZ;
+    }
+
+    /**
+     * Gets the x coordinate of the max point of the BoundingBox.
+     *
+     * @return The x coordinate of the max point.
+     */
+    public double getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Gets the y coordinate of the max point of the BoundingBox.
+     *
+     * @return The y coordinate of the max point.
+     */
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Gets the z coordinate of the max point of the BoundingBox.
+     *
+     * @return The z coordinate of the max point.
+     */
+    public double getMaxZ() {
+        return maxZ;
     }
 
     /**
@@ -144,6 +215,28 @@ public class BoundingBox {
      * @return The middle X-axis of the BoundingBox.
      */
     public double getMidPointX() {
-        return (minPoint.getX() + maxPoint.getX()) / 2;
+        return (minX + maxX) / 2;
+    }
+
+    /**
+     * calculates the surface area of the BoundingBox.
+     *
+     * @return The surface area of the BoundingBox.
+     */
+    public double getSurfaceArea() {
+        double dx = maxX - minX;
+        double dy = maxY - minY;
+        double dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Checks if all the bounds of the BoundingBox are finite numbers.
+     *
+     * @return True if the BoundingBox has finite bounds, false otherwise.
+     */
+    public boolean isFinite() {
+        return Double.isFinite(minX) && Double.isFinite(minY) && Double.isFinite(minZ) &&
+                Double.isFinite(maxX) && Double.isFinite(maxY) && Double.isFinite(maxZ);
     }
 }
@@ -42,15 +42,13 @@ public class Color {
     }
 
     /**
-     * Constructor to generate a color according to RGB components Each component
-     * in
-     * range 0..255 (for printed white color) or more [for lights]
+     * Constructor to generate a color according to RGB components that are known
+     * to be non-negative - the result of an operation on colors and non-negative
+     * factors - so they are not validated again
      *
      * @param rgb triad of Red/Green/Blue components
      */
-    private Color(Double3 rgb) {
-        if (rgb.d1 < 0 || rgb.d2 < 0 || rgb.d3 < 0)
-            throw new IllegalArgumentException("Negative color component is illegal");
+    Color(Double3 rgb) {
         this.rgb = rgb;
     }
 
@@ -76,6 +74,26 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Color getter - returns the RGB components of the color, not limited to 255
+     *
+     * @return the RGB components
+     */
+    public Double3 getRgb() {
+        return rgb;
+    }
+
+    /**
+     * Operation of adding this and another color (by component), with no array
+     * of arguments
+     *
+     * @param color the other color to add
+     * @return new Color object which is a result of the operation
+     */
+    public Color add(Color color) {
+        return new Color(new Double3(rgb.d1 + color.rgb.d1, rgb.d2 + color.rgb.d2, rgb.d3 + color.rgb.d3));
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
@@ -91,7 +109,7 @@ public class Color {
             rg += c.rgb.d2;
             rb += c.rgb.d3;
         }
-        return new Color(rr, rg, rb);
+        return new Color(new Double3(rr, rg, rb));
     }
 
     /**
@@ -137,7 +155,7 @@ public class Color {
     public Color reduce(Double3 k) {
         if (k.d1 < 1.0 || k.d2 < 1.0 || k.d3 < 1.0)
             throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-        return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
+        return new Color(new Double3(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3));
     }
 
     @Override
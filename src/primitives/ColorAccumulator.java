@@ -0,0 +1,64 @@
+package primitives;
+
+/**
+ * A mutable sum of colors, for the shading loops of the ray tracer. weighted colors are added into it without
+ * allocation and without validation, and a single immutable Color is made of the sum at the end.
+ * the weights are expected to be non-negative, as the coefficients of the materials and the lights are.
+ */
+public class ColorAccumulator {
+    /**
+     * The sums of the red, green and blue components.
+     */
+    private double r, g, b;
+
+    /**
+     * Adds a color to the sum.
+     *
+     * @param color The color to add.
+     * @return The accumulator itself.
+     */
+    public ColorAccumulator add(Color color) {
+        Double3 rgb = color.getRgb();
+        r += rgb.d1;
+        g += rgb.d2;
+        b += rgb.d3;
+        return this;
+    }
+
+    /**
+     * Adds a color scaled by a factor per component to the sum.
+     *
+     * @param color The color to add.
+     * @param k     The factors of the components.
+     * @return The accumulator itself.
+     */
+    public ColorAccumulator add(Color color, Double3 k) {
+        return add(color, k.d1, k.d2, k.d3);
+    }
+
+    /**
+     * Adds a color scaled by a factor per component to the sum.
+     *
+     * @param color The color to add.
+     * @param kr    The factor of the red component.
+     * @param kg    The factor of the green component.
+     * @param kb    The factor of the blue component.
+     * @return The accumulator itself.
+     */
+    public ColorAccumulator add(Color color, double kr, double kg, double kb) {
+        Double3 rgb = color.getRgb();
+        r += rgb.d1 * kr;
+        g += rgb.d2 * kg;
+        b += rgb.d3 * kb;
+        return this;
+    }
+
+    /**
+     * Makes a color of the sum.
+     *
+     * @return The color of the sum.
+     */
+    public Color toColor() {
+        return new Color(new Double3(r, g, b));
+    }
+}
@@ -58,6 +58,33 @@ public class Double3 {
         this.d3 = value;
     }
 
+    /**
+     * getter for the first number
+     *
+     * @return the first number value
+     */
+    public double getD1() {
+        return d1;
+    }
+
+    /**
+     * getter for the second number
+     *
+     * @return the second number value
+     */
+    public double getD2() {
+        return d2;
+    }
+
+    /**
+     * getter for the third number
+     *
+     * @return the third number value
+     */
+    public double getD3() {
+        return d3;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -1,14 +1,17 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * The Point class represents a point in 3D space with x, y, and z coordinates.
  */
 public class Point {
 
     /**
-     * The coordinates of the point.
+     * The coordinates of the point, held inline rather than in a Double3 so a coordinate is a single load and a
+     * point is a single object.
      */
-    final Double3 xyz;
+    final double x, y, z;
 
     /**
      * Returns the x coordinate of the point.
@@ -16,7 +19,7 @@ public class Point {
      * @return The x coordinate of the point.
      */
     public double getX() {
-        return xyz.d1;
+        return x;
     }
 
     /**
@@ -26,7 +29,7 @@ public class Point {
      */
     @SuppressWarnings("unused")
     public double getY() {
-        return xyz.d2;
+        return y;
     }
 
     /**
@@ -36,7 +39,7 @@ public class Point {
      */
     @SuppressWarnings("unused")
     public double getZ() {
-        return xyz.d3;
+        return z;
     }
 
 
@@ -48,16 +51,9 @@ public class Point {
      * @param z The z coordinate of the point.
      */
     public Point(double x, double y, double z) {
-        xyz = new Double3(x, y, z);
-    }
-
-    /**
-     * Constructs a new Point object from a Double3 object.
-     *
-     * @param p The Double3 object to construct the point from.
-     */
-    Point(Double3 p) {
-        this(p.d1, p.d2, p.d3);
+        this.x = x;
+        this.y = y;
+        this.z = z;
     }
 
     /**
@@ -67,7 +63,7 @@ public class Point {
      * @return The resulting Point object.
      */
     public Point add(Vector v) {
-        return new Point(xyz.add(v.xyz));
+        return new Point(x + v.x, y + v.y, z + v.z);
     }
 
     /**
@@ -77,7 +73,7 @@ public class Point {
      * @return The resulting Vector object.
      */
     public Vector subtract(Point p) {
-        return new Vector(xyz.subtract(p.xyz));
+        return new Vector(x - p.x, y - p.y, z - p.z);
     }
 
     /**
@@ -87,9 +83,9 @@ public class Point {
      * @return The square of the distance between this point and the specified point.
      */
     public double distanceSquared(Point p) {
-        double delta1 = xyz.d1 - p.xyz.d1;
-        double delta2 = xyz.d2 - p.xyz.d2;
-        double delta3 = xyz.d3 - p.xyz.d3;
+        double delta1 = x - p.x;
+        double delta2 = y - p.y;
+        double delta3 = z - p.z;
         return delta1 * delta1 + delta2 * delta2 + delta3 * delta3;
     }
 
@@ -103,20 +99,31 @@ public class Point {
         return Math.sqrt(distanceSquared(p));
     }
 
+    /**
+     * Returns a string representation of the coordinates of the point, as of a Double3.
+     *
+     * @return The coordinates in parentheses.
+     */
+    String coordinates() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         return (o instanceof Point point)
-                && xyz.equals(point.xyz);
+                && isZero(x - point.x)
+                && isZero(y - point.y)
+                && isZero(z - point.z);
     }
 
     @Override
     public int hashCode() {
-        return xyz.hashCode();
+        return (int) Math.round(x + y + z);
     }
 
     @Override
     public String toString() {
-        return "Point: " + xyz;
+        return "Point: " + coordinates();
     }
 }
@@ -20,11 +20,53 @@ public class Ray {
      */
     final private Vector dir;
 
+    /**
+     * The coordinates of the starting point, cached for the box tests of the traversal.
+     */
+    final private double originX, originY, originZ;
+
+    /**
+     * The inverse of the direction components, cached for the box tests of the traversal.
+     */
+    final private double invDirX, invDirY, invDirZ;
+
+    /**
+     * Whether each of the direction components is negative.
+     */
+    final private boolean negX, negY, negZ;
+
     /**
      * Head of rays movement const
      */
     private static final double DELTA = 0.1;
 
+    /**
+     * Constructs a new Ray object with the given starting point and the coordinates of its direction, with no
+     * intermediate vectors. the direction does not have to be normalized.
+     *
+     * @param p  The starting point of the ray.
+     * @param dx The x coordinate of the direction of the ray.
+     * @param dy The y coordinate of the direction of the ray.
+     * @param dz The z coordinate of the direction of the ray.
+     * @throws IllegalArgumentException if the direction is the zero vector.
+     */
+    public Ray(Point p, double dx, double dy, double dz) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (isZero(length))
+            throw new IllegalArgumentException("The direction of a ray can't be the zero vector");
+        p0 = p;
+        dir = new Vector(dx / length, dy / length, dz / length);
+        originX = p0.getX();
+        originY = p0.getY();
+        originZ = p0.getZ();
+        invDirX = 1 / dir.getX();
+        invDirY = 1 / dir.getY();
+        invDirZ = 1 / dir.getZ();
+        negX = invDirX < 0;
+        negY = invDirY < 0;
+        negZ = invDirZ < 0;
+    }
+
     /**
      * Constructs a new Ray object with the given direction and starting point.
      *
@@ -32,8 +74,7 @@ public class Ray {
      * @param p The starting point of the ray.
      */
     public Ray(Vector v, Point p) {
-        p0 = p;
-        dir = v.normalize();
+        this(p, v.getX(), v.getY(), v.getZ());
     }
 
     /**
@@ -43,7 +84,7 @@ public class Ray {
      * @param v The direction vector of the ray.
      */
     public Ray(Point p, Vector v) {
-        this(v, p);
+        this(p, v.getX(), v.getY(), v.getZ());
     }
 
     /**
@@ -54,9 +95,37 @@ public class Ray {
      * @param n      The normal vector of the ray.
      */
     public Ray(Vector vecDir, Point p , Vector n) {
-        dir = vecDir.normalize();
-        Vector delta = n.scale(Util.alignZero(n.dotProduct(dir) > 0 ? DELTA : -DELTA));
-        p0 = p.add(delta);
+        this(p, vecDir.getX(), vecDir.getY(), vecDir.getZ(), n);
+    }
+
+    /**
+     * Constructs a new Ray object from a point on a surface, moved a little along the normal of the surface to the
+     * side the ray goes to, with the coordinates of its direction and with no intermediate vectors.
+     *
+     * @param p  The point on the surface.
+     * @param dx The x coordinate of the direction of the ray.
+     * @param dy The y coordinate of the direction of the ray.
+     * @param dz The z coordinate of the direction of the ray.
+     * @param n  The normal of the surface at the point.
+     */
+    public Ray(Point p, double dx, double dy, double dz, Vector n) {
+        this(moveHead(p, dx, dy, dz, n), dx, dy, dz);
+    }
+
+    /**
+     * Moves the head of a ray from a surface a little along the normal of the surface, to the side the ray goes to.
+     *
+     * @param p  The point on the surface.
+     * @param dx The x coordinate of the direction of the ray.
+     * @param dy The y coordinate of the direction of the ray.
+     * @param dz The z coordinate of the direction of the ray.
+     * @param n  The normal of the surface at the point.
+     * @return The moved head of the ray.
+     */
+    private static Point moveHead(Point p, double dx, double dy, double dz, Vector n) {
+        double nx = n.getX(), ny = n.getY(), nz = n.getZ();
+        double delta = nx * dx + ny * dy + nz * dz > 0 ? DELTA : -DELTA;
+        return new Point(p.getX() + nx * delta, p.getY() + ny * delta, p.getZ() + nz * delta);
     }
 
     /**
@@ -68,6 +137,87 @@ public class Ray {
         return p0;
     }
 
+    /**
+     * Returns the x coordinate of the starting point of the ray.
+     *
+     * @return The x coordinate of the starting point.
+     */
+    public double getOriginX() {
+        return originX;
+    }
+
+    /**
+     * Returns the y coordinate of the starting point of the ray.
+     *
+     * @return The y coordinate of the starting point.
+     */
+    public double getOriginY() {
+        return originY;
+    }
+
+    /**
+     * Returns the z coordinate of the starting point of the ray.
+     *
+     * @return The z coordinate of the starting point.
+     */
+    public double getOriginZ() {
+        return originZ;
+    }
+
+    /**
+     * Returns the inverse of the x component of the direction of the ray.
+     *
+     * @return The inverse of the x component of the direction (infinite if it is zero).
+     */
+    public double getInvDirX() {
+        return invDirX;
+    }
+
+    /**
+     * Returns the inverse of the y component of the direction of the ray.
+     *
+     * @return The inverse of the y component of the direction (infinite if it is zero).
+     */
+    public double getInvDirY() {
+        return invDirY;
+    }
+
+    /**
+     * Returns the inverse of the z component of the direction of the ray.
+     *
+     * @return The inverse of the z component of the direction (infinite if it is zero).
+     */
+    public double getInvDirZ() {
+        return invDirZ;
+    }
+
+    /**
+     * Checks if the x component of the direction of the ray is negative.
+     *
+     * @return True if the ray goes towards negative x, false otherwise.
+     */
+    public boolean isNegX() {
+        return negX;
+    }
+
+    /**
+     * Checks if the y component of the direction of the ray is negative.
+     *
+     * @return True if the ray goes towards negative y, false otherwise.
+     */
+    public boolean isNegY() {
+        return negY;
+    }
+
+    /**
+     * Checks if the z component of the direction of the ray is negative.
+     *
+     * @return True if the ray goes towards negative z, false otherwise.
+     */
+    public boolean isNegZ() {
+        return negZ;
+    }
+
     /**
      * calculates a point on the ray at a given distance from the head of the ray
      *
@@ -75,7 +225,8 @@ public class Ray {
      * @return the point
      */
     public Point getPoint(double t) {
-        return isZero(t) ? p0 : p0.add(dir.scale(t));
+        return isZero(t) ? p0 :
+                new Point(originX + dir.getX() * t, originY + dir.getY() * t, originZ + dir.getZ() * t);
     }
 
     /**
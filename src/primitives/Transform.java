@@ -0,0 +1,203 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * The Transform class represents an affine transformation of 3D space - a linear transformation
+ * (rotation, scaling, shearing) followed by a translation - as a 3x4 matrix.
+ * transforms are immutable, and are combined with {@link #then(Transform)}.
+ */
+public class Transform {
+    /**
+     * The identity transform.
+     */
+    public static final Transform IDENTITY = new Transform(new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /**
+     * The rows of the matrix - the linear part in columns 0-2 and the translation in column 3.
+     */
+    private final double[] m;
+
+    /**
+     * Constructs a Transform of a 3x4 matrix.
+     *
+     * @param m The rows of the matrix.
+     */
+    private Transform(double[] m) {
+        this.m = m;
+    }
+
+    /**
+     * Creates a translation by a vector.
+     *
+     * @param v The translation vector.
+     * @return The translation transform.
+     */
+    public static Transform translation(Vector v) {
+        return new Transform(new double[]{1, 0, 0, v.getX(), 0, 1, 0, v.getY(), 0, 0, 1, v.getZ()});
+    }
+
+    /**
+     * Creates a scaling along the axes around the origin.
+     *
+     * @param sx The scale along the x axis.
+     * @param sy The scale along the y axis.
+     * @param sz The scale along the z axis.
+     * @return The scaling transform.
+     * @throws IllegalArgumentException if one of the scales is zero
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        if (isZero(sx) || isZero(sy) || isZero(sz))
+            throw new IllegalArgumentException("Scale must not be zero");
+        return new Transform(new double[]{sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0});
+    }
+
+    /**
+     * Creates a uniform scaling around the origin.
+     *
+     * @param s The scale.
+     * @return The scaling transform.
+     * @throws IllegalArgumentException if the scale is zero
+     */
+    public static Transform scaling(double s) {
+        return scaling(s, s, s);
+    }
+
+    /**
+     * Creates a rotation around an axis through the origin (Rodrigues' rotation formula).
+     *
+     * @param axis  The axis of the rotation.
+     * @param angle The angle of the rotation in degrees, counterclockwise when looking against the axis.
+     * @return The rotation transform.
+     */
+    public static Transform rotation(Vector axis, double angle) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double radians = Math.toRadians(angle);
+        double cos = Math.cos(radians), sin = Math.sin(radians), k = 1 - cos;
+        return new Transform(new double[]{
+                cos + x * x * k, x * y * k - z * sin, x * z * k + y * sin, 0,
+                y * x * k + z * sin, cos + y * y * k, y * z * k - x * sin, 0,
+                z * x * k - y * sin, z * y * k + x * sin, cos + z * z * k, 0});
+    }
+
+    /**
+     * Combines this transform with a transform that is applied after it.
+     *
+     * @param next The transform applied after this one.
+     * @return The transform that applies this transform and then the next one.
+     */
+    public Transform then(Transform next) {
+        double[] a = next.m;
+        double[] r = new double[12];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 4; col++) {
+                r[4 * row + col] = a[4 * row] * m[col] + a[4 * row + 1] * m[4 + col] + a[4 * row + 2] * m[8 + col];
+            }
+            r[4 * row + 3] += a[4 * row + 3];
+        }
+        return new Transform(r);
+    }
+
+    /**
+     * Calculates the inverse transform.
+     *
+     * @return The transform that undoes this transform.
+     * @throws IllegalArgumentException if the transform is singular (flattens space)
+     */
+    public Transform inverse() {
+        double c00 = m[5] * m[10] - m[6] * m[9];
+        double c01 = m[6] * m[8] - m[4] * m[10];
+        double c02 = m[4] * m[9] - m[5] * m[8];
+        double det = m[0] * c00 + m[1] * c01 + m[2] * c02;
+        // the determinant is compared to the product of the lengths of the rows, its largest possible value,
+        // so a transform is singular by its shape and not by its scale
+        double rows = Math.sqrt((m[0] * m[0] + m[1] * m[1] + m[2] * m[2])
+                * (m[4] * m[4] + m[5] * m[5] + m[6] * m[6])
+                * (m[8] * m[8] + m[9] * m[9] + m[10] * m[10]));
+        if (rows == 0 || isZero(det / rows))
+            throw new IllegalArgumentException("Singular transform has no inverse");
+        double inv = 1 / det;
+        double[] r = new double[12];
+        // the inverse of the linear part is its adjugate divided by the determinant
+        r[0] = c00 * inv;
+        r[1] = (m[2] * m[9] - m[1] * m[10]) * inv;
+        r[2] = (m[1] * m[6] - m[2] * m[5]) * inv;
+        r[4] = c01 * inv;
+        r[5] = (m[0] * m[10] - m[2] * m[8]) * inv;
+        r[6] = (m[2] * m[4] - m[0] * m[6]) * inv;
+        r[8] = c02 * inv;
+        r[9] = (m[1] * m[8] - m[0] * m[9]) * inv;
+        r[10] = (m[0] * m[5] - m[1] * m[4]) * inv;
+        // and the translation is undone after the linear part is
+        for (int row = 0; row < 3; row++)
+            r[4 * row + 3] = -(r[4 * row] * m[3] + r[4 * row + 1] * m[7] + r[4 * row + 2] * m[11]);
+        return new Transform(r);
+    }
+
+    /**
+     * Transforms a point.
+     *
+     * @param p The point.
+     * @return The transformed point.
+     */
+    public Point transform(Point p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        return new Point(m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * Transforms a direction vector - only the linear part applies, the length is not preserved.
+     *
+     * @param v The vector.
+     * @return The transformed vector.
+     */
+    public Vector transformVector(Vector v) {
+        double x = v.getX(), y = v.getY(), z = v.getZ();
+        return new Vector(m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+
+    /**
+     * Transforms a normal vector of a surface, given the inverse of this transform: normals are transformed by the
+     * transposed inverse of the linear part, so they stay perpendicular to the transformed surface.
+     *
+     * @param n       The normal vector.
+     * @param inverse The inverse of this transform.
+     * @return The transformed normal vector, normalized.
+     */
+    public Vector transformNormal(Vector n, Transform inverse) {
+        double[] r = inverse.m;
+        double x = n.getX(), y = n.getY(), z = n.getZ();
+        return new Vector(r[0] * x + r[4] * y + r[8] * z,
+                r[1] * x + r[5] * y + r[9] * z,
+                r[2] * x + r[6] * y + r[10] * z).normalize();
+    }
+
+    /**
+     * Transforms a bounding box - calculates the bounding box of its eight transformed corners.
+     *
+     * @param box The bounding box.
+     * @return The bounding box of the transformed box.
+     */
+    public BoundingBox transform(BoundingBox box) {
+        double[] lo = {box.getMinX(), box.getMinY(), box.getMinZ()};
+        double[] hi = {box.getMaxX(), box.getMaxY(), box.getMaxZ()};
+        double[] resultMin = new double[3];
+        double[] resultMax = new double[3];
+        // each coordinate of the result is smallest (largest) when each term is, which picks one of the corners
+        for (int row = 0; row < 3; row++) {
+            resultMin[row] = resultMax[row] = m[4 * row + 3];
+            for (int col = 0; col < 3; col++) {
+                double a = m[4 * row + col] * lo[col];
+                double b = m[4 * row + col] * hi[col];
+                resultMin[row] += Math.min(a, b);
+                resultMax[row] += Math.max(a, b);
+            }
+        }
+        return new BoundingBox(resultMin[0], resultMin[1], resultMin[2], resultMax[0], resultMax[1], resultMax[2]);
+    }
+}
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * Represents a vector in 3-dimensional space.
  * This class extends the Point class, so it inherits the x, y, and z coordinates from Point.
@@ -16,17 +18,8 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (xyz.equals(Double3.ZERO)) throw new IllegalArgumentException("The Vector (0,0,0) is illegal for use.");
-    }
-
-    /**
-     * Constructs a new Vector from a Double3 object.
-     *
-     * @param p the Double3 object to create the Vector from
-     */
-    Vector(Double3 p) {
-        super(p);
-        if (xyz.equals(Double3.ZERO)) throw new IllegalArgumentException("The Vector (0,0,0) is illegal for use.");
+        if (isZero(x) && isZero(y) && isZero(z))
+            throw new IllegalArgumentException("The Vector (0,0,0) is illegal for use.");
     }
 
     /**
@@ -36,7 +29,7 @@ public class Vector extends Point {
      * @return the sum of the two Vectors as a new Vector
      */
     public Vector add(Vector v) {
-        return new Vector(xyz.add(v.xyz));
+        return new Vector(x + v.x, y + v.y, z + v.z);
     }
 
     /**
@@ -46,7 +39,7 @@ public class Vector extends Point {
      * @return the scaled vector as a new vector
      */
     public Vector scale(double k) {
-        return new Vector(xyz.scale(k));
+        return new Vector(x * k, y * k, z * k);
     }
 
     /**
@@ -56,7 +49,7 @@ public class Vector extends Point {
      * @return the dot product of the two vectors
      */
     public double dotProduct(Vector v) {
-        return xyz.d1 * v.xyz.d1 + xyz.d2 * v.xyz.d2 + xyz.d3 * v.xyz.d3;
+        return x * v.x + y * v.y + z * v.z;
     }
 
     /**
@@ -66,7 +59,7 @@ public class Vector extends Point {
      * @return a new vector that is the cross product of this vector and the given vector.
      */
     public Vector crossProduct(Vector v) {
-        return new Vector(xyz.d2 * v.xyz.d3 - xyz.d3 * v.xyz.d2, xyz.d3 * v.xyz.d1 - xyz.d1 * v.xyz.d3, xyz.d1 * v.xyz.d2 - xyz.d2 * v.xyz.d1);
+        return new Vector(y * v.z - z * v.y, z * v.x - x * v.z, x * v.y - y * v.x);
     }
 
     /**
@@ -94,7 +87,7 @@ public class Vector extends Point {
      */
     public Vector normalize() {
         double k = length();
-        return new Vector(xyz.reduce(k));
+        return new Vector(x / k, y / k, z / k);
     }
 
     /**
@@ -117,6 +110,6 @@ public class Vector extends Point {
      */
     @Override
     public String toString() {
-        return "Vector: " + xyz;
+        return "Vector: " + coordinates();
     }
 }
@@ -222,19 +222,27 @@ public class Camera {
      * @return the Ray from the camera to the given pixel
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
-        Point pC = position.add(vTo.scale(distance));
+        // the pixel is calculated on the coordinates, with no intermediate points and vectors
+        double x = position.getX() + vTo.getX() * distance;
+        double y = position.getY() + vTo.getY() * distance;
+        double z = position.getZ() + vTo.getZ() * distance;
 
         double rX = width / nX;
         double rY = height / nY;
         double xJ = (j - (nX - 1) / 2.0) * rX;
         double yI = (i - (nY - 1) / 2.0) * rY;
 
-        Point pIJ = pC;
-        if (!isZero(xJ)) pIJ = pIJ.add(vRight.scale(xJ));
-        if (!isZero(yI)) pIJ = pIJ.add(vUp.scale(-yI));
-
-        Vector vIJ = pIJ.subtract(position).normalize();
-        return new Ray(position, vIJ);
+        if (!isZero(xJ)) {
+            x += vRight.getX() * xJ;
+            y += vRight.getY() * xJ;
+            z += vRight.getZ() * xJ;
+        }
+        if (!isZero(yI)) {
+            x += vUp.getX() * -yI;
+            y += vUp.getY() * -yI;
+            z += vUp.getZ() * -yI;
+        }
+        return new Ray(position, x - position.getX(), y - position.getY(), z - position.getZ());
     }
 
     /**
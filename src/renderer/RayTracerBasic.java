@@ -5,7 +5,6 @@ import primitives.*;
 import static primitives.Util.*;
 import scene.Scene;
 import geometries.Intersectable.GeoPoint;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -63,10 +62,7 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The closest intersection point of the given ray with the scene.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        if (intersections == null)
-            return null;
-        return ray.findClosestGeoPoint(intersections);
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
     /**
@@ -77,60 +73,69 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The color of the given point.
      */
     public Color calcColor(GeoPoint point, Ray ray) {
-        return calcColor(point, ray, MAX_CALC_COLOR_LEVEL, new Double3(INITIAL_K)).add(scene.ambientLight.getIntensity());
+        // all the contributions of the point and of the rays it spawns are summed into a single accumulator
+        ColorAccumulator color = new ColorAccumulator();
+        calcColor(point, ray, MAX_CALC_COLOR_LEVEL, new Double3(INITIAL_K), color);
+        return color.add(scene.ambientLight.getIntensity()).toColor();
     }
 
     /**
-     * Calculates the color of the given point.
+     * Adds the color of the given point, weighted by the product of the coefficients of the reflections and the
+     * refractions that led to it, to the accumulated color.
      *
      * @param point The point to calculate the color in.
      * @param ray   The ray that intersects the point.
      * @param level The level of recursion.
-     * @param k     The k vector.
-     * @return The color of the given point.
+     * @param k     The k vector - the weight of the point.
+     * @param color The accumulated color.
      */
-    public Color calcColor(GeoPoint point, Ray ray, int level, Double3 k) {
-        Color color = point.geometry.getEmission();
-        color = color.add(calcLocalEffects(point, ray, k));
-        return 1 == level ? color : color.add(calcGlobalEffects(point, ray, level, k));
+    private void calcColor(GeoPoint point, Ray ray, int level, Double3 k, ColorAccumulator color) {
+        // the normal is calculated once for the local and the global effects
+        Vector n = point.getNormal();
+        color.add(point.geometry.getEmission(), k);
+        calcLocalEffects(point, n, ray, k, color);
+        if (1 != level)
+            calcGlobalEffects(point, n, ray, level, k, color);
     }
 
     /**
-     * Calculates the local effects of the given point.
+     * Adds the global effects of the given point to the accumulated color.
      *
-     * @param gp    The point to calculate the local effects in.
+     * @param gp    The point to calculate the global effects in.
+     * @param n     The normal at the point.
      * @param ray   The ray that intersects the point.
      * @param level The level of recursion.
      * @param k     The k vector.
-     * @return The color of the given point.
+     * @param color The accumulated color.
      */
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Color color = Color.BLACK;
+    private void calcGlobalEffects(GeoPoint gp, Vector n, Ray ray, int level, Double3 k, ColorAccumulator color) {
         Material material = gp.geometry.getMaterial();
 
         Double3 kkr = material.kR.product(k);
         if (!kkr.lowerThan(MIN_CALC_COLOR_K))
-            color = calcGlobalEffect(constructReflectedRay(gp.geometry.getNormal(gp.point), gp.point, ray), level, material.kR, kkr);
+            calcGlobalEffect(constructReflectedRay(n, gp.point, ray), level, k, kkr, color);
 
         Double3 kkt = material.kT.product(k);
         if (!kkt.lowerThan(MIN_CALC_COLOR_K))
-            color = color.add(calcGlobalEffect(constructRefractedRay(gp.geometry.getNormal(ray.getP0()), gp.point, ray), level, material.kT, kkt));
-
-        return color;
+            calcGlobalEffect(constructRefractedRay(n, gp.point, ray), level, k, kkt, color);
     }
 
     /**
-     * Calculates the global effects of the given point.
+     * Adds the global effect of a reflected or refracted ray to the accumulated color.
      *
-     * @param ray   The ray that intersects the point.
+     * @param ray   The reflected or refracted ray.
      * @param level The level of recursion.
-     * @param kx    The kx vector.
-     * @param kkx   The kkx vector.
-     * @return The color of the given point.
+     * @param k     The k vector - the weight of the point the ray starts at.
+     * @param kkx   The kkx vector - the weight of the ray.
+     * @param color The accumulated color.
      */
-    private Color calcGlobalEffect(Ray ray, int level, Double3 kx, Double3 kkx) {
+    private void calcGlobalEffect(Ray ray, int level, Double3 k, Double3 kkx, ColorAccumulator color) {
         GeoPoint gp = findClosestIntersection(ray);
-        return (gp == null ? scene.background : calcColor(gp, ray, level - 1, kkx).scale(kx));
+        // the background is not scaled by the coefficient of the ray, only by the weight of the point
+        if (gp == null)
+            color.add(scene.background, k);
+        else
+            calcColor(gp, ray, level - 1, kkx, color);
     }
 
     /**
@@ -143,8 +148,9 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Ray constructReflectedRay(Vector n, Point point, Ray inRay) {
         Vector v = inRay.getDir();
-        Vector r = v.subtract(n.scale(Util.alignZero(2 * (n.dotProduct(v)))));
-        return new Ray(r.normalize(), point, n);
+        double nx = n.getX(), ny = n.getY(), nz = n.getZ();
+        double nv2 = Util.alignZero(2 * (nx * v.getX() + ny * v.getY() + nz * v.getZ()));
+        return new Ray(point, v.getX() - nx * nv2, v.getY() - ny * nv2, v.getZ() - nz * nv2, n);
     }
 
     /**
@@ -156,42 +162,52 @@ public class RayTracerBasic extends RayTracerBase {
      * @return refracted ray
      */
     private Ray constructRefractedRay(Vector n, Point point, Ray inRay) {
-        return new Ray(inRay.getDir(), point, n);
+        Vector v = inRay.getDir();
+        return new Ray(point, v.getX(), v.getY(), v.getZ(), n);
     }
 
 
     /**
-     * Calculate the effects of lights
+     * Adds the effects of lights to the accumulated color. the products of the vectors are calculated on their
+     * coordinates, with no intermediate vectors, and the diffusive and specular factors of each light are
+     * combined before the light is added.
      *
      * @param intersection the intersection point
+     * @param n            the normal at the point
      * @param ray          the ray
-     * @return The color resulted by local effecrs calculation
+     * @param k            the weight of the point
+     * @param color        the accumulated color
      */
-    private Color calcLocalEffects(GeoPoint intersection, Ray ray, Double3 k) {
+    private void calcLocalEffects(GeoPoint intersection, Vector n, Ray ray, Double3 k, ColorAccumulator color) {
         Vector v = ray.getDir();
-        Vector n = intersection.geometry.getNormal(intersection.point);
-        double nv = alignZero(n.dotProduct(v));
+        double nx = n.getX(), ny = n.getY(), nz = n.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double nv = alignZero(nx * vx + ny * vy + nz * vz);
         if (nv == 0)
-            return Color.BLACK;
-        int nShininess = intersection.geometry.getMaterial().nShininess;
+            return;
+        Material material = intersection.geometry.getMaterial();
+        int nShininess = material.nShininess;
 
-        Double3 kd = intersection.geometry.getMaterial().kD;
-        Double3 ks = intersection.geometry.getMaterial().kS;
-        Color color = Color.BLACK;
+        Double3 kd = material.kD;
+        Double3 ks = material.kS;
         for (LightSource lightSource : scene.lights) {
             Vector l = lightSource.getL(intersection.point);
-            double nl = Util.alignZero(n.dotProduct(l));
+            double lx = l.getX(), ly = l.getY(), lz = l.getZ();
+            double nl = alignZero(nx * lx + ny * ly + nz * lz);
             if (nl * nv > 0) { // checks if sign(nl) == sing(nv)
                 //if (unshaded(lightSource, l, n, intersection))
                 Double3 ktr = transparency(lightSource, l, n, intersection);
-                if (!k.product(ktr).lowerThan(MIN_CALC_COLOR_K)) {
-                    Color lightIntensity = lightSource.getIntensity(intersection.point).scale(ktr);
-                    color = color.add(calcDiffusive(kd, l, n, lightIntensity),
-                            calcSpecular(ks, l, n, v, nShininess, lightIntensity));
+                double k1 = k.getD1() * ktr.getD1(), k2 = k.getD2() * ktr.getD2(), k3 = k.getD3() * ktr.getD3();
+                if (!(k1 < MIN_CALC_COLOR_K && k2 < MIN_CALC_COLOR_K && k3 < MIN_CALC_COLOR_K)) {
+                    double diffusive = calcDiffusive(nl);
+                    double specular = calcSpecular(nl, vx * lx + vy * ly + vz * lz, nv, nShininess);
+                    color.add(lightSource.getIntensity(intersection.point),
+                            k1 * (kd.getD1() * diffusive + ks.getD1() * specular),
+                            k2 * (kd.getD2() * diffusive + ks.getD2() * specular),
+                            k3 * (kd.getD3() * diffusive + ks.getD3() * specular));
                 }
             }
         }
-        return color;
     }
 
     /**
@@ -205,67 +221,57 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the averaged ktr of all sample rays
      */
     private Double3 transparency(LightSource ls, Vector l, Vector n, GeoPoint geoPoint) {
-        Double3 ktr = Double3.ZERO;
-        int count = 0;
-
+        // each sample ray only looks for the geometries between the point and the light,
+        // and stops as soon as it is blocked
+        Point point = geoPoint.point;
+        double lightDistance = ls.getDistance(point);
         List<Point> targetAreaPoints = ls.getGridPoints(l);
-        // in case the light is directional, we simply add a point in the opposite direction, so we will do 1 check
-        // as we used to do (Directional light is NOT affected by super sampling)
+        // in case the light is directional, there is a single ray in the opposite direction
+        // (Directional light is NOT affected by super sampling)
         if (targetAreaPoints == null) {
-            targetAreaPoints = new LinkedList<>();
-            targetAreaPoints.add(geoPoint.point.add(l.scale(-1)));
+            Ray ray = new Ray(point, -l.getX(), -l.getY(), -l.getZ(), n);
+            Double3 ktr = scene.geometries.findTransmittance(ray, lightDistance, MIN_CALC_COLOR_K);
+            return ktr.lowerThan(MIN_CALC_COLOR_K) ? Double3.ZERO : ktr;
         }
 
+        // the transmittances are summed on their coordinates
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        double ktr1 = 0, ktr2 = 0, ktr3 = 0;
         for (Point p : targetAreaPoints) {
-            List<GeoPoint> intersections = scene.geometries.findGeoIntersections(new Ray(p.subtract(geoPoint.point).normalize(), geoPoint.point, n));
-            if (intersections == null) {
-                ktr = ktr.add(Double3.ONE);
-                count++;
-            } else {
-                double lightDistance = ls.getDistance(geoPoint.point);
-                for (GeoPoint geop : intersections) {
-                    if (Util.alignZero(geop.point.distance(geoPoint.point) - lightDistance) <= 0) {
-                        ktr = ktr.add(geop.geometry.getMaterial().kT);
-                        count++;
-                    } else {
-                        ktr = ktr.add(Double3.ONE);
-                        count++;
-                    }
-                }
-            }
+            Ray ray = new Ray(point, p.getX() - x, p.getY() - y, p.getZ() - z, n);
+            Double3 ktr = scene.geometries.findTransmittance(ray, lightDistance, MIN_CALC_COLOR_K);
+            ktr1 += ktr.getD1();
+            ktr2 += ktr.getD2();
+            ktr3 += ktr.getD3();
         }
-        return ktr.scale(1.0 / count).lowerThan(MIN_CALC_COLOR_K) ? Double3.ZERO : ktr.scale(1.0 / count);
+        int count = targetAreaPoints.size();
+        Double3 ktr = new Double3(ktr1 / count, ktr2 / count, ktr3 / count);
+        return ktr.lowerThan(MIN_CALC_COLOR_K) ? Double3.ZERO : ktr;
     }
 
     /**
-     * Calculates diffusive light
+     * Calculates the factor of diffusive light
      *
-     * @param kd             the diffusive coefficient
-     * @param l              the light vector
-     * @param n              the normal vector
-     * @param lightIntensity the light intensity
-     * @return The color of diffusive effects
+     * @param nl the dot product of the normal and the light vector
+     * @return The factor of the diffusive coefficient
      */
-    private Color calcDiffusive(Double3 kd, Vector l, Vector n, Color lightIntensity) {
-        double ln = Util.alignZero(l.dotProduct(n));
-        return lightIntensity.scale(kd.scale(ln < 0 ? -ln : ln));
+    private double calcDiffusive(double nl) {
+        return nl < 0 ? -nl : nl;
     }
 
     /**
-     * Calculate specular light
+     * Calculate the factor of specular light. the reflection of the light vector r = l - 2(l*n)n is not
+     * constructed, its dot product with the view vector is v*l - 2(l*n)(v*n).
      *
-     * @param ks             the specular coefficient
-     * @param l              the light vector
-     * @param n              the normal vector
-     * @param v              the view vector
-     * @param nShininess     the shininess factor
-     * @param lightIntensity the light intensity
-     * @return The color of specular reflection
+     * @param nl         the dot product of the normal and the light vector
+     * @param vl         the dot product of the view vector and the light vector
+     * @param nv         the dot product of the normal and the view vector
+     * @param nShininess the shininess factor
+     * @return The factor of the specular coefficient
      */
-    private Color calcSpecular(Double3 ks, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity) {
-        Vector r = l.subtract(n.scale(l.dotProduct(n) * 2));
-        double vr = -Util.alignZero(v.dotProduct(r));
-        return vr <= 0 ? Color.BLACK : lightIntensity.scale(ks.scale(Math.pow(vr, nShininess)));
+    private double calcSpecular(double nl, double vl, double nv, int nShininess) {
+        double vr = -Util.alignZero(vl - 2 * nl * nv);
+        return vr <= 0 ? 0 : Math.pow(vr, nShininess);
     }
 
     /**
@@ -0,0 +1,476 @@
+package scene;
+
+import geometries.TriangleMesh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * The ObjLoader class loads the triangles of a Wavefront OBJ file into a {@link TriangleMesh}.
+ * <p>
+ * The file is read through memory-mapped buffers and its numbers are parsed straight from the bytes, without a
+ * String per line, into growing arrays of vertex coordinates and vertex indices, so the memory a load takes is
+ * close to the memory of the mesh. The file can be split into chunks at line ends that are parsed in parallel.
+ * <p>
+ * Only the vertex ({@code v}) and face ({@code f}) lines are read: faces of more than three vertices are split
+ * into a fan of triangles, face indices may be negative (relative to the last vertex read), and the texture and
+ * normal indices of a face are skipped. All other lines - normals, texture coordinates, groups, materials and
+ * comments - are ignored.
+ */
+public final class ObjLoader {
+    /**
+     * The largest chunk of the file that is mapped at once (a mapped buffer is indexed by an int).
+     */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    /**
+     * The offset that marks an index relative to the vertices of a chunk, until the vertices of the chunks
+     * before it are counted. no chunk has as many vertices.
+     */
+    private static final int RELATIVE = 1 << 30;
+
+    /**
+     * The powers of ten that are exact doubles, for parsing numbers with a single correctly rounded operation.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * The logger of I/O errors.
+     */
+    private static final Logger logger = Logger.getLogger("ObjLoader");
+
+    /**
+     * A utility class is not instantiated.
+     */
+    private ObjLoader() {
+    }
+
+    /**
+     * Loads the triangles of an OBJ file on a single thread.
+     *
+     * @param file The OBJ file.
+     * @return The mesh of the triangles of the file.
+     * @throws IllegalArgumentException if the file is malformed or has no faces
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public static TriangleMesh load(Path file) {
+        return load(file, 1);
+    }
+
+    /**
+     * Loads the triangles of an OBJ file, parsing chunks of it in parallel.
+     * the mesh does not depend on the number of threads.
+     *
+     * @param file    The OBJ file.
+     * @param threads The number of threads to parse the file with.
+     * @return The mesh of the triangles of the file.
+     * @throws IllegalArgumentException if the number of threads is not positive,
+     *                                  or if the file is malformed or has no faces
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public static TriangleMesh load(Path file, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Load threads must be at least 1");
+        Chunk[] chunks;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) Math.max(threads, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+            long[] starts = new long[count + 1];
+            starts[count] = size;
+            for (int i = 1; i < count; i++)
+                starts[i] = lineStart(channel, Math.max(starts[i - 1], size / count * i));
+            chunks = new Chunk[count];
+            for (int i = 0; i < count; i++)
+                chunks[i] = new Chunk(starts[i],
+                        channel.map(FileChannel.MapMode.READ_ONLY, starts[i], starts[i + 1] - starts[i]));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - cannot read the OBJ file " + file, e);
+        }
+
+        if (threads == 1) {
+            for (Chunk chunk : chunks)
+                chunk.parse();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                // a parallel stream started from inside the pool runs on the pool's threads
+                pool.submit(() -> IntStream.range(0, chunks.length).parallel().forEach(i -> chunks[i].parse())).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return merge(chunks);
+    }
+
+    /**
+     * Finds the start of the first line that starts at a position of the file or after it.
+     *
+     * @param channel  The channel of the file.
+     * @param position The position.
+     * @return The position of the start of the line, or the size of the file if there is no such line.
+     * @throws IOException if the file cannot be read
+     */
+    private static long lineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0)
+            return 0;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        // the line starts right after the end of the line before it
+        long p = position - 1;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, p);
+            if (read <= 0)
+                return channel.size();
+            for (int i = 0; i < read; i++)
+                if (buffer.get(i) == '\n')
+                    return p + i + 1;
+            p += read;
+        }
+    }
+
+    /**
+     * Merges the vertices and the faces of the parsed chunks into a mesh.
+     *
+     * @param chunks The parsed chunks.
+     * @return The mesh.
+     */
+    private static TriangleMesh merge(Chunk[] chunks) {
+        long vertexValues = 0, faceValues = 0;
+        for (Chunk chunk : chunks) {
+            vertexValues += chunk.vertexCount;
+            faceValues += chunk.faceCount;
+        }
+        if (faceValues == 0)
+            throw new IllegalArgumentException("The OBJ file has no faces");
+        if (vertexValues > Integer.MAX_VALUE - 8 || faceValues > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The OBJ file is too large for a single mesh");
+
+        double[] vertices;
+        int[] faces;
+        if (chunks.length == 1) {
+            vertices = trim(chunks[0].vertices, chunks[0].vertexCount);
+            faces = chunks[0].faces;
+        } else {
+            vertices = new double[(int) vertexValues];
+            faces = new int[(int) faceValues];
+        }
+        int vertexOffset = 0, faceOffset = 0;
+        for (Chunk chunk : chunks) {
+            if (chunks.length > 1) {
+                System.arraycopy(chunk.vertices, 0, vertices, vertexOffset, chunk.vertexCount);
+                System.arraycopy(chunk.faces, 0, faces, faceOffset, chunk.faceCount);
+            }
+            // the relative indices of a chunk are resolved once the vertices before it are counted
+            int firstVertex = vertexOffset / 3;
+            for (int i = faceOffset; i < faceOffset + chunk.faceCount; i++)
+                if (faces[i] < 0)
+                    faces[i] += RELATIVE + firstVertex;
+            vertexOffset += chunk.vertexCount;
+            faceOffset += chunk.faceCount;
+            chunk.vertices = null;
+            chunk.faces = null;
+        }
+        return new TriangleMesh(vertices, chunks.length == 1 ? trim(faces, faceOffset) : faces);
+    }
+
+    /**
+     * Trims an array of values to the number of values in it.
+     *
+     * @param values The array.
+     * @param count  The number of values.
+     * @return The array, or a copy of its values if it has room for more.
+     */
+    private static double[] trim(double[] values, int count) {
+        return values.length == count ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Trims an array of values to the number of values in it.
+     *
+     * @param values The array.
+     * @param count  The number of values.
+     * @return The array, or a copy of its values if it has room for more.
+     */
+    private static int[] trim(int[] values, int count) {
+        return values.length == count ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * A chunk of whole lines of the file, and the vertices and faces parsed from it.
+     */
+    private static final class Chunk {
+        /**
+         * The position of the chunk in the file.
+         */
+        private final long start;
+
+        /**
+         * The mapped bytes of the chunk.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The position of the parser in the chunk.
+         */
+        private int pos;
+
+        /**
+         * The coordinates of the vertices of the chunk, three values per vertex.
+         */
+        private double[] vertices = new double[3 * 1024];
+
+        /**
+         * The number of coordinates in the vertices array.
+         */
+        private int vertexCount;
+
+        /**
+         * The vertex indices of the faces of the chunk, three indices per triangle. an index written relative to
+         * the last vertex is kept relative to the first vertex of the chunk, minus {@link ObjLoader#RELATIVE}.
+         */
+        private int[] faces = new int[3 * 1024];
+
+        /**
+         * The number of indices in the faces array.
+         */
+        private int faceCount;
+
+        /**
+         * Constructs a chunk of the file.
+         *
+         * @param start  The position of the chunk in the file.
+         * @param buffer The mapped bytes of the chunk.
+         */
+        Chunk(long start, MappedByteBuffer buffer) {
+            this.start = start;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Parses the lines of the chunk.
+         */
+        void parse() {
+            int limit = buffer.limit();
+            while (pos < limit) {
+                skipSpaces();
+                if (pos + 1 < limit && isSpace(buffer.get(pos + 1))) {
+                    byte keyword = buffer.get(pos);
+                    if (keyword == 'v') {
+                        pos += 2;
+                        parseVertex();
+                    } else if (keyword == 'f') {
+                        pos += 2;
+                        parseFace();
+                    }
+                }
+                skipLine();
+            }
+        }
+
+        /**
+         * Parses the coordinates of a vertex. a fourth coordinate and vertex colors are ignored.
+         */
+        private void parseVertex() {
+            if (vertexCount + 3 > vertices.length)
+                vertices = Arrays.copyOf(vertices, grow(vertices.length));
+            vertices[vertexCount] = parseDouble();
+            vertices[vertexCount + 1] = parseDouble();
+            vertices[vertexCount + 2] = parseDouble();
+            vertexCount += 3;
+        }
+
+        /**
+         * Parses the vertex indices of a face, and adds it as a fan of triangles.
+         */
+        private void parseFace() {
+            int first = parseIndex();
+            int previous = parseIndex();
+            int vertices = 2;
+            while (!endOfLine()) {
+                int current = parseIndex();
+                if (faceCount + 3 > faces.length)
+                    faces = Arrays.copyOf(faces, grow(faces.length));
+                faces[faceCount] = first;
+                faces[faceCount + 1] = previous;
+                faces[faceCount + 2] = current;
+                faceCount += 3;
+                previous = current;
+                vertices++;
+            }
+            if (vertices < 3)
+                throw malformed("A face must have at least 3 vertices");
+        }
+
+        /**
+         * Parses a vertex index of a face, and skips its texture and normal indices.
+         *
+         * @return The index of the vertex from 0, or relative to the first vertex of the chunk
+         * minus {@link ObjLoader#RELATIVE} if it is written relative to the last vertex.
+         */
+        private int parseIndex() {
+            skipSpaces();
+            int limit = buffer.limit();
+            boolean negative = pos < limit && buffer.get(pos) == '-';
+            if (negative)
+                pos++;
+            int digitsStart = pos;
+            long index = 0;
+            while (pos < limit && isDigit(buffer.get(pos)) && index <= Integer.MAX_VALUE)
+                index = 10 * index + (buffer.get(pos++) - '0');
+            if (pos == digitsStart || index == 0 || index > Integer.MAX_VALUE)
+                throw malformed("Illegal vertex index");
+            while (pos < limit && !isSpace(buffer.get(pos)) && buffer.get(pos) != '\n')
+                pos++;
+            return negative ? vertexCount / 3 - (int) index - RELATIVE : (int) index - 1;
+        }
+
+        /**
+         * Parses a number. a number of up to 15 significant digits and an exponent of up to 22 (the usual
+         * numbers of OBJ files) is calculated with a single correctly rounded operation, and other numbers are
+         * parsed by {@link Double#parseDouble(String)}.
+         *
+         * @return The number.
+         */
+        private double parseDouble() {
+            skipSpaces();
+            int limit = buffer.limit();
+            int numberStart = pos;
+            boolean negative = false;
+            if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+                negative = buffer.get(pos++) == '-';
+            long mantissa = 0;
+            int digits = 0, exponent = 0;
+            boolean any = false;
+            for (; pos < limit && isDigit(buffer.get(pos)); pos++, any = true) {
+                if (digits < 18) {
+                    mantissa = 10 * mantissa + (buffer.get(pos) - '0');
+                    if (mantissa != 0)
+                        digits++;
+                } else
+                    exponent++;
+            }
+            if (pos < limit && buffer.get(pos) == '.') {
+                for (pos++; pos < limit && isDigit(buffer.get(pos)); pos++, any = true) {
+                    if (digits < 18) {
+                        mantissa = 10 * mantissa + (buffer.get(pos) - '0');
+                        if (mantissa != 0)
+                            digits++;
+                        exponent--;
+                    }
+                }
+            }
+            if (any && pos < limit && (buffer.get(pos) == 'e' || buffer.get(pos) == 'E')) {
+                pos++;
+                boolean negativeExponent = false;
+                if (pos < limit && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+                    negativeExponent = buffer.get(pos++) == '-';
+                int value = 0;
+                int exponentStart = pos;
+                while (pos < limit && isDigit(buffer.get(pos)) && value < 100_000)
+                    value = 10 * value + (buffer.get(pos++) - '0');
+                if (pos == exponentStart)
+                    any = false;
+                exponent += negativeExponent ? -value : value;
+            }
+            if (any && (pos == limit || isSpace(buffer.get(pos)) || buffer.get(pos) == '\n')
+                    && mantissa < (1L << 53) && Math.abs(exponent) <= 22) {
+                double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+
+            // not an ordinary number - a long one, or not a number at all
+            pos = numberStart;
+            while (pos < limit && !isSpace(buffer.get(pos)) && buffer.get(pos) != '\n')
+                pos++;
+            byte[] token = new byte[pos - numberStart];
+            buffer.get(numberStart, token);
+            try {
+                return Double.parseDouble(new String(token, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw malformed("Illegal number");
+            }
+        }
+
+        /**
+         * Skips the spaces and tabs at the position of the parser.
+         */
+        private void skipSpaces() {
+            int limit = buffer.limit();
+            while (pos < limit && isSpace(buffer.get(pos)))
+                pos++;
+        }
+
+        /**
+         * Skips the spaces and checks if the line has ended.
+         *
+         * @return True if the parser is at the end of the line, false otherwise.
+         */
+        private boolean endOfLine() {
+            skipSpaces();
+            return pos == buffer.limit() || buffer.get(pos) == '\n' || buffer.get(pos) == '#';
+        }
+
+        /**
+         * Skips the rest of the line at the position of the parser, and its end.
+         */
+        private void skipLine() {
+            int limit = buffer.limit();
+            while (pos < limit && buffer.get(pos) != '\n')
+                pos++;
+            pos++;
+        }
+
+        /**
+         * Creates the exception of a malformed line.
+         *
+         * @param message The reason the line is malformed.
+         * @return The exception.
+         */
+        private IllegalArgumentException malformed(String message) {
+            return new IllegalArgumentException(message + " in the OBJ file at byte " + (start + pos));
+        }
+
+        /**
+         * Calculates the next size of a growing array.
+         *
+         * @param length The current size of the array.
+         * @return The next size.
+         */
+        private static int grow(int length) {
+            return (int) Math.min(Integer.MAX_VALUE - 8, length + (long) (length >> 1));
+        }
+
+        /**
+         * Checks if a byte is a space within a line.
+         *
+         * @param b The byte.
+         * @return True for a space, a tab or a carriage return, false otherwise.
+         */
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        /**
+         * Checks if a byte is a decimal digit.
+         *
+         * @param b The byte.
+         * @return True for a digit, false otherwise.
+         */
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+    }
+}
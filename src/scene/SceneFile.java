@@ -0,0 +1,659 @@
+package scene;
+
+import geometries.Cylinder;
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Intersectable;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.TriangleMesh;
+import geometries.Tube;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The SceneFile class writes scenes to a versioned binary file, and loads them back.
+ * <p>
+ * A file holds the background and the ambient light of a scene, optionally the parameters of a camera, a table
+ * of the materials shared by the geometries, the lights and the primitives of the geometries. All the values are
+ * little endian and every number array starts at a multiple of eight bytes, so a loaded file is mapped with
+ * {@link FileChannel#map} and the vertex and index arrays of meshes are copied from the mapping in bulk, with no
+ * parsing. a mesh is written with the tree over its faces, so a loaded mesh is not built again.
+ * <p>
+ * Nested geometries are written as their primitives. Spheres, planes, polygons, triangles, tubes, cylinders and
+ * triangle meshes are supported.
+ */
+public final class SceneFile {
+    /**
+     * The first bytes of a scene file ("RTSC").
+     */
+    private static final int MAGIC = 0x43535452;
+
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The types of the light records.
+     */
+    private static final int DIRECTIONAL_LIGHT = 1, POINT_LIGHT = 2, SPOT_LIGHT = 3;
+
+    /**
+     * The flag of a spot light that has target points.
+     */
+    private static final int TARGET_POINTS = 1;
+
+    /**
+     * The types of the geometry records.
+     */
+    private static final int SPHERE = 1, PLANE = 2, TRIANGLE = 3, POLYGON = 4, TUBE = 5, CYLINDER = 6, MESH = 7;
+
+    /**
+     * The size of the buffer of the writer.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The logger of I/O errors.
+     */
+    private static final Logger logger = Logger.getLogger("SceneFile");
+
+    /**
+     * The loaded scene.
+     */
+    private final Scene scene;
+
+    /**
+     * The loaded camera, null if the file has no camera.
+     */
+    private final Camera camera;
+
+    /**
+     * Constructs the content of a loaded file.
+     *
+     * @param scene  The loaded scene.
+     * @param camera The loaded camera, or null.
+     */
+    private SceneFile(Scene scene, Camera camera) {
+        this.scene = scene;
+        this.camera = camera;
+    }
+
+    /**
+     * getter for the loaded scene
+     *
+     * @return the scene, with its geometries not built yet
+     */
+    public Scene getScene() {
+        return scene;
+    }
+
+    /**
+     * getter for the loaded camera: its position, directions and view plane, with no image writer and ray tracer
+     *
+     * @return the camera, or null if the file has no camera
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Writes a scene and a camera to a file.
+     *
+     * @param file   The file.
+     * @param scene  The scene.
+     * @param camera The camera, or null to write the scene only.
+     * @throws IllegalArgumentException if the scene has geometries or lights that cannot be written
+     * @throws IllegalStateException    if the file cannot be written
+     */
+    public static void write(Path file, Scene scene, Camera camera) {
+        List<Intersectable> primitives = scene.geometries.getPrimitives();
+        Map<Material, Integer> materialIndices = new IdentityHashMap<>();
+        List<Material> materials = new ArrayList<>();
+        for (Intersectable primitive : primitives) {
+            if (!(primitive instanceof Geometry geometry) || type(geometry) == 0)
+                throw new IllegalArgumentException("A " + primitive.getClass().getSimpleName() + " cannot be written to a scene file");
+            if (materialIndices.putIfAbsent(geometry.getMaterial(), materials.size()) == null)
+                materials.add(geometry.getMaterial());
+        }
+        for (LightSource light : scene.lights)
+            if (!(light instanceof PointLight || light instanceof DirectionalLight))
+                throw new IllegalArgumentException("A " + light.getClass().getSimpleName() + " cannot be written to a scene file");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            byte[] name = scene.name.getBytes(StandardCharsets.UTF_8);
+            out.putInt(MAGIC).putInt(VERSION).putInt(camera == null ? 0 : 1).putInt(name.length);
+            out.putBytes(name).align();
+            out.putDouble3(scene.background.getRgb()).putDouble3(scene.ambientLight.getIntensity().getRgb());
+            if (camera != null)
+                out.putPoint(camera.getPosition()).putVector(camera.getVTo()).putVector(camera.getVUp())
+                        .putDouble(camera.getDistance()).putDouble(camera.getWidth()).putDouble(camera.getHeight());
+            out.putInt(materials.size()).putInt(scene.lights.size()).putInt(primitives.size()).putInt(0);
+
+            for (Material material : materials)
+                out.putDouble3(material.kD).putDouble3(material.kS).putDouble3(material.kR).putDouble3(material.kT)
+                        .putDouble(material.nShininess);
+            for (LightSource light : scene.lights)
+                writeLight(out, light);
+            for (Intersectable primitive : primitives)
+                writeGeometry(out, (Geometry) primitive, materialIndices);
+            out.flush();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - cannot write the scene file " + file, e);
+        }
+    }
+
+    /**
+     * Finds the type of the record of a geometry.
+     *
+     * @param geometry The geometry.
+     * @return The type of the record, 0 if the geometry cannot be written.
+     */
+    private static int type(Geometry geometry) {
+        if (geometry instanceof Sphere) return SPHERE;
+        if (geometry instanceof Plane) return PLANE;
+        if (geometry instanceof Triangle) return TRIANGLE;
+        if (geometry instanceof Polygon) return POLYGON;
+        if (geometry instanceof Cylinder) return CYLINDER;
+        if (geometry instanceof Tube) return TUBE;
+        if (geometry instanceof TriangleMesh) return MESH;
+        return 0;
+    }
+
+    /**
+     * Writes the record of a light.
+     *
+     * @param out   The output.
+     * @param light The light.
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeLight(Output out, LightSource light) throws IOException {
+        Vector none = new Vector(0, 0, 1);
+        if (light instanceof SpotLight spot)
+            out.putInt(SPOT_LIGHT).putInt(spot.getTargetPoints() == null ? 0 : TARGET_POINTS);
+        else if (light instanceof PointLight)
+            out.putInt(POINT_LIGHT).putInt(0);
+        else
+            out.putInt(DIRECTIONAL_LIGHT).putInt(0);
+
+        if (light instanceof PointLight point) {
+            out.putDouble3(point.getIntensity().getRgb()).putPoint(point.getPosition())
+                    .putVector(point instanceof SpotLight spot ? spot.getDirection() : none)
+                    .putDouble(point.getKC()).putDouble(point.getKL()).putDouble(point.getKQ())
+                    .putDouble(point.getRadius());
+        } else {
+            DirectionalLight directional = (DirectionalLight) light;
+            out.putDouble3(directional.getIntensity().getRgb()).putPoint(new Point(0, 0, 0))
+                    .putVector(directional.getDirection()).putDouble(1).putDouble(0).putDouble(0).putDouble(0);
+        }
+    }
+
+    /**
+     * Writes the record of a geometry.
+     *
+     * @param out             The output.
+     * @param geometry        The geometry.
+     * @param materialIndices The indices of the materials in the table of the file.
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeGeometry(Output out, Geometry geometry, Map<Material, Integer> materialIndices)
+            throws IOException {
+        int type = type(geometry);
+        out.putInt(type).putInt(materialIndices.get(geometry.getMaterial())).putDouble3(geometry.getEmission().getRgb());
+        switch (type) {
+            case SPHERE -> {
+                Sphere sphere = (Sphere) geometry;
+                out.putPoint(sphere.getCenter()).putDouble(sphere.getRadius());
+            }
+            case PLANE -> {
+                Plane plane = (Plane) geometry;
+                out.putPoint(plane.getQ0()).putVector(plane.getNormal());
+            }
+            case TRIANGLE -> {
+                for (Point vertex : ((Triangle) geometry).getVertices())
+                    out.putPoint(vertex);
+            }
+            case POLYGON -> {
+                List<Point> vertices = ((Polygon) geometry).getVertices();
+                out.putInt(vertices.size()).putInt(0);
+                for (Point vertex : vertices)
+                    out.putPoint(vertex);
+            }
+            case TUBE, CYLINDER -> {
+                Tube tube = (Tube) geometry;
+                out.putDouble(tube.getRadius()).putPoint(tube.getAxisRay().getP0()).putVector(tube.getAxisRay().getDir());
+                if (type == CYLINDER)
+                    out.putDouble(((Cylinder) geometry).getHeight());
+            }
+            default -> {
+                TriangleMesh mesh = (TriangleMesh) geometry;
+                double[] vertices = mesh.getVertices();
+                int[] faces = mesh.getFaces();
+                int[] nodes = mesh.getNodes();
+                out.putInt(vertices.length).putInt(faces.length).putInt(nodes.length).putInt(0);
+                out.putDoubles(vertices).putInts(faces).align().putInts(nodes).align().putDoubles(mesh.getNodeBounds());
+            }
+        }
+    }
+
+    /**
+     * Loads a scene and a camera from a file.
+     *
+     * @param file The file.
+     * @return The content of the file.
+     * @throws IllegalArgumentException if the file is not a scene file of this version, or is damaged
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public static SceneFile load(Path file) {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("The scene file is too large to be mapped");
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - cannot read the scene file " + file, e);
+        }
+
+        try {
+            if (in.remaining() < 16 || in.getInt() != MAGIC)
+                throw new IllegalArgumentException("Not a scene file");
+            int version = in.getInt();
+            if (version != VERSION)
+                throw new IllegalArgumentException("Unsupported version " + version + " of the scene file");
+            boolean hasCamera = in.getInt() != 0;
+            int nameLength = in.getInt();
+            if (nameLength < 0 || nameLength > in.remaining())
+                throw new IllegalArgumentException("Damaged scene file");
+            byte[] name = new byte[nameLength];
+            in.get(name);
+            align(in);
+
+            Scene scene = new Scene(new String(name, StandardCharsets.UTF_8))
+                    .setBackground(getColor(in))
+                    .setAmbientLight(new AmbientLight(getColor(in), 1));
+            Camera camera = null;
+            if (hasCamera) {
+                Point position = getPoint(in);
+                Vector vTo = getVector(in);
+                Vector vUp = getVector(in);
+                double distance = in.getDouble();
+                camera = new Camera(position, vTo, vUp).setVPDistance(distance).setVPSize(in.getDouble(), in.getDouble());
+            }
+            int materialCount = in.getInt();
+            int lightCount = in.getInt();
+            int geometryCount = in.getInt();
+            in.getInt();
+            if (materialCount < 0 || lightCount < 0 || geometryCount < 0)
+                throw new IllegalArgumentException("Damaged scene file");
+
+            Material[] materials = new Material[materialCount];
+            for (int i = 0; i < materialCount; i++)
+                materials[i] = new Material().setKD(getDouble3(in)).setKS(getDouble3(in)).setKR(getDouble3(in))
+                        .setKT(getDouble3(in)).setNShininess((int) in.getDouble());
+            List<LightSource> lights = new LinkedList<>();
+            for (int i = 0; i < lightCount; i++)
+                lights.add(readLight(in));
+            Intersectable[] geometries = new Intersectable[geometryCount];
+            for (int i = 0; i < geometryCount; i++)
+                geometries[i] = readGeometry(in, materials);
+            scene.setLights(lights).setGeometries(new Geometries(geometries));
+            return new SceneFile(scene, camera);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated scene file", e);
+        }
+    }
+
+    /**
+     * Reads the record of a light.
+     *
+     * @param in The mapped file.
+     * @return The light.
+     */
+    private static LightSource readLight(ByteBuffer in) {
+        int type = in.getInt();
+        int flags = in.getInt();
+        Color intensity = getColor(in);
+        Point position = getPoint(in);
+        Vector direction = getVector(in);
+        double kC = in.getDouble(), kL = in.getDouble(), kQ = in.getDouble(), radius = in.getDouble();
+        return switch (type) {
+            case DIRECTIONAL_LIGHT -> new DirectionalLight(intensity, direction);
+            case POINT_LIGHT -> new PointLight(intensity, position, radius).setKC(kC).setKL(kL).setKQ(kQ);
+            case SPOT_LIGHT -> ((flags & TARGET_POINTS) != 0 ? new SpotLight(intensity, position, direction, radius)
+                    : new SpotLight(intensity, position, direction)).setKC(kC).setKL(kL).setKQ(kQ);
+            default -> throw new IllegalArgumentException("Unknown light type " + type + " in the scene file");
+        };
+    }
+
+    /**
+     * Reads the record of a geometry.
+     *
+     * @param in        The mapped file.
+     * @param materials The table of the materials.
+     * @return The geometry.
+     */
+    private static Geometry readGeometry(ByteBuffer in, Material[] materials) {
+        int type = in.getInt();
+        Material material = materials[in.getInt()];
+        Color emission = getColor(in);
+        Geometry geometry = switch (type) {
+            case SPHERE -> {
+                Point center = getPoint(in);
+                yield new Sphere(in.getDouble(), center);
+            }
+            case PLANE -> new Plane(getPoint(in), getVector(in));
+            case TRIANGLE -> new Triangle(getPoint(in), getPoint(in), getPoint(in));
+            case POLYGON -> {
+                int count = in.getInt();
+                in.getInt();
+                if (count < 0 || count > in.remaining() / (3 * Double.BYTES))
+                    throw new IllegalArgumentException("Damaged scene file");
+                Point[] vertices = new Point[count];
+                for (int i = 0; i < count; i++)
+                    vertices[i] = getPoint(in);
+                yield new Polygon(vertices);
+            }
+            case TUBE, CYLINDER -> {
+                double radius = in.getDouble();
+                Ray axis = new Ray(getPoint(in), getVector(in));
+                yield type == TUBE ? new Tube(radius, axis) : new Cylinder(radius, axis, in.getDouble());
+            }
+            case MESH -> {
+                int vertexValues = in.getInt();
+                int faceValues = in.getInt();
+                int nodeValues = in.getInt();
+                in.getInt();
+                if (vertexValues < 0 || faceValues < 0 || nodeValues < 0
+                        || (long) vertexValues * Double.BYTES + (long) faceValues * Integer.BYTES
+                        + (long) nodeValues * Integer.BYTES + (long) nodeValues / 4 * 6 * Double.BYTES > in.remaining())
+                    throw new IllegalArgumentException("Damaged scene file");
+                // the arrays are copied from the mapping in bulk, and the tree of the mesh is not built again
+                double[] vertices = new double[vertexValues];
+                in.asDoubleBuffer().get(vertices);
+                in.position(in.position() + vertexValues * Double.BYTES);
+                int[] faces = new int[faceValues];
+                in.asIntBuffer().get(faces);
+                in.position(in.position() + faceValues * Integer.BYTES);
+                align(in);
+                int[] nodes = new int[nodeValues];
+                in.asIntBuffer().get(nodes);
+                in.position(in.position() + nodeValues * Integer.BYTES);
+                align(in);
+                double[] nodeBounds = new double[nodeValues / 4 * 6];
+                in.asDoubleBuffer().get(nodeBounds);
+                in.position(in.position() + nodeBounds.length * Double.BYTES);
+                yield new TriangleMesh(vertices, faces, nodes, nodeBounds);
+            }
+            default -> throw new IllegalArgumentException("Unknown geometry type " + type + " in the scene file");
+        };
+        return geometry.setMaterial(material).setEmission(emission);
+    }
+
+    /**
+     * Skips to the next multiple of eight bytes.
+     *
+     * @param in The mapped file.
+     */
+    private static void align(ByteBuffer in) {
+        in.position((in.position() + 7) & ~7);
+    }
+
+    /**
+     * Reads three numbers.
+     *
+     * @param in The mapped file.
+     * @return The numbers.
+     */
+    private static Double3 getDouble3(ByteBuffer in) {
+        return new Double3(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a color.
+     *
+     * @param in The mapped file.
+     * @return The color.
+     */
+    private static Color getColor(ByteBuffer in) {
+        return new Color(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a point.
+     *
+     * @param in The mapped file.
+     * @return The point.
+     */
+    private static Point getPoint(ByteBuffer in) {
+        return new Point(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a vector.
+     *
+     * @param in The mapped file.
+     * @return The vector.
+     */
+    private static Vector getVector(ByteBuffer in) {
+        return new Vector(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * The buffered output of the writer.
+     */
+    private static final class Output {
+        /**
+         * The channel of the file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The buffer of the values that are not written yet.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        /**
+         * The number of bytes written to the channel.
+         */
+        private long written;
+
+        /**
+         * Constructs the output of a file.
+         *
+         * @param channel The channel of the file.
+         */
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Writes the buffered values to the channel.
+         *
+         * @throws IOException if the file cannot be written
+         */
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                written += channel.write(buffer);
+            buffer.clear();
+        }
+
+        /**
+         * Makes room for values in the buffer.
+         *
+         * @param bytes The size of the values.
+         * @throws IOException if the file cannot be written
+         */
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes)
+                flush();
+        }
+
+        /**
+         * Writes a number.
+         *
+         * @param value The number.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            return this;
+        }
+
+        /**
+         * Writes a number.
+         *
+         * @param value The number.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+            return this;
+        }
+
+        /**
+         * Writes three numbers.
+         *
+         * @param value The numbers.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putDouble3(Double3 value) throws IOException {
+            return putDouble(value.getD1()).putDouble(value.getD2()).putDouble(value.getD3());
+        }
+
+        /**
+         * Writes a point.
+         *
+         * @param point The point.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putPoint(Point point) throws IOException {
+            return putDouble(point.getX()).putDouble(point.getY()).putDouble(point.getZ());
+        }
+
+        /**
+         * Writes a vector.
+         *
+         * @param vector The vector.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putVector(Vector vector) throws IOException {
+            return putDouble(vector.getX()).putDouble(vector.getY()).putDouble(vector.getZ());
+        }
+
+        /**
+         * Writes bytes.
+         *
+         * @param bytes The bytes.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putBytes(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                ensure(1);
+                int count = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.put(bytes, i, count);
+                i += count;
+            }
+            return this;
+        }
+
+        /**
+         * Writes an array of numbers, in bulk.
+         *
+         * @param values The numbers.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putDoubles(double[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(Double.BYTES);
+                int count = Math.min(buffer.remaining() / Double.BYTES, values.length - i);
+                buffer.asDoubleBuffer().put(values, i, count);
+                buffer.position(buffer.position() + count * Double.BYTES);
+                i += count;
+            }
+            return this;
+        }
+
+        /**
+         * Writes an array of numbers, in bulk.
+         *
+         * @param values The numbers.
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output putInts(int[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(Integer.BYTES);
+                int count = Math.min(buffer.remaining() / Integer.BYTES, values.length - i);
+                buffer.asIntBuffer().put(values, i, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                i += count;
+            }
+            return this;
+        }
+
+        /**
+         * Pads the output to the next multiple of eight bytes.
+         *
+         * @return This output.
+         * @throws IOException if the file cannot be written
+         */
+        Output align() throws IOException {
+            while ((written + buffer.position()) % 8 != 0)
+                putZero();
+            return this;
+        }
+
+        /**
+         * Writes a zero byte.
+         *
+         * @throws IOException if the file cannot be written
+         */
+        private void putZero() throws IOException {
+            ensure(1);
+            buffer.put((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package test;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Benchmark program measuring the heap allocated per traced ray, and the time of tracing,
+ * on a scene of reflecting and refracting spheres lit with hard and with soft shadows.
+ */
+public final class AllocationBenchmark {
+    /**
+     * The number of pixels along each side of the view plane.
+     */
+    private static final int SIZE = 300;
+
+    /**
+     * The number of times the view plane is traced, so the later runs are of compiled code.
+     */
+    private static final int RUNS = 4;
+
+    /**
+     * Benchmark program entry point
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        benchmark("hard shadows", 0);
+        benchmark("soft shadows", 4);
+    }
+
+    /**
+     * Builds the scene, and prints the bytes allocated per ray and the time of tracing every pixel of it.
+     *
+     * @param name   the name of the run
+     * @param radius the radius of the point light, zero for hard shadows
+     */
+    private static void benchmark(String name, double radius) {
+        Material shiny = new Material().setKD(0.4).setKS(0.6).setNShininess(80).setKR(0.2);
+        Material glass = new Material().setKD(0.1).setKS(0.3).setKT(0.5);
+        Scene scene = new Scene(name).setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++)
+            scene.geometries.add(new Sphere(2, new Point(random.nextDouble() * 200 - 100,
+                    random.nextDouble() * 200 - 100, -random.nextDouble() * 200 - 50))
+                    .setEmission(new Color(20, 30, 40)).setMaterial(i % 3 == 0 ? glass : shiny));
+        scene.geometries.add(new Plane(new Point(0, -100, 0), new Vector(0, 1, 0)).setMaterial(shiny));
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(-1, -1, -1)));
+        scene.lights.add(new PointLight(new Color(300, 200, 100), new Point(50, 50, 0), radius).setKL(1e-4).setKQ(1e-6));
+        scene.lights.add(new SpotLight(new Color(400, 240, 0), new Point(-50, 50, 0), new Vector(1, -1, -3))
+                .setKL(1e-5).setKQ(1.5e-7));
+        scene.geometries.buildTree();
+
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(100);
+        RayTracerBasic tracer = new RayTracerBasic(scene);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int run = 0; run < RUNS; run++) {
+            double checksum = 0;
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < SIZE; i++)
+                for (int j = 0; j < SIZE; j++)
+                    checksum += tracer.traceRay(camera.constructRay(SIZE, SIZE, j, i)).getRgb().getD1();
+            double traceTime = (System.nanoTime() - start) / 1e6;
+            bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+            System.out.printf("%s: %.0f bytes/ray, %d rays %.1f ms (checksum %f)%n",
+                    name, bytes / (double) (SIZE * SIZE), SIZE * SIZE, traceTime, checksum);
+        }
+    }
+}
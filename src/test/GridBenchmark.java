@@ -0,0 +1,68 @@
+package test;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.Sphere;
+import geometries.Triangle;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+/**
+ * Benchmark program comparing the uniform grid with the hierarchical tree on the same scenes:
+ * the build time and the time of finding the closest intersection of many random rays.
+ */
+public final class GridBenchmark {
+    /**
+     * The number of rays shot at each scene.
+     */
+    private static final int RAYS = 200_000;
+
+    /**
+     * Benchmark program entry point
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        Intersectable[] particles = new Intersectable[200_000];
+        for (int i = 0; i < particles.length; i++)
+            particles[i] = new Sphere(0.3, new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100));
+        benchmark("particle field", particles);
+
+        Intersectable[] floor = new Intersectable[2 * 300 * 300];
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 300; y++) {
+                floor[2 * (300 * x + y)] = new Triangle(new Point(x, y, 0), new Point(x + 1, y, 0), new Point(x, y + 1, 0));
+                floor[2 * (300 * x + y) + 1] = new Triangle(new Point(x + 1, y + 1, 0), new Point(x, y + 1, 0), new Point(x + 1, y, 0));
+            }
+        }
+        benchmark("tiled floor", floor);
+    }
+
+    /**
+     * Builds a scene with every build mode, and prints the build time and the time of shooting random rays at it.
+     *
+     * @param name       the name of the scene
+     * @param primitives the geometries of the scene
+     */
+    private static void benchmark(String name, Intersectable[] primitives) {
+        for (Geometries.BuildMode mode : Geometries.BuildMode.values()) {
+            Geometries geometries = new Geometries(primitives).buildTree(mode);
+            Random random = new Random(2);
+            int hits = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < RAYS; i++) {
+                Ray ray = new Ray(new Point(random.nextDouble() * 100, random.nextDouble() * 100, 150),
+                        new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+                if (geometries.findClosestGeoIntersection(ray) != null)
+                    hits++;
+            }
+            double traceTime = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%s, %s: build %.1f ms, %d rays %.1f ms (%d hits)%n",
+                    name, mode, geometries.getBuildTime(), RAYS, traceTime, hits);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package test;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.Intersectable.GeoPoint;
+import geometries.Triangle;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+/**
+ * Benchmark program measuring the memory layout of points on a mesh-heavy scene: the heap held by a terrain of
+ * separate triangles, with and without the tree over them, and the time of finding the closest intersection of
+ * many random rays and its normal.
+ */
+public final class TerrainBenchmark {
+    /**
+     * The number of vertices along each side of the terrain.
+     */
+    private static final int SIZE = 300;
+
+    /**
+     * The number of rays shot at the terrain.
+     */
+    private static final int RAYS = 300_000;
+
+    /**
+     * The number of times the rays are shot, so the later runs are of compiled code.
+     */
+    private static final int RUNS = 4;
+
+    /**
+     * Benchmark program entry point
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        long empty = usedHeap();
+        Intersectable[] terrain = new Intersectable[2 * (SIZE - 1) * (SIZE - 1)];
+        for (int x = 0; x < SIZE - 1; x++) {
+            for (int y = 0; y < SIZE - 1; y++) {
+                Point p00 = vertex(x, y), p10 = vertex(x + 1, y), p01 = vertex(x, y + 1), p11 = vertex(x + 1, y + 1);
+                terrain[2 * ((SIZE - 1) * x + y)] = new Triangle(p00, p10, p01);
+                terrain[2 * ((SIZE - 1) * x + y) + 1] = new Triangle(p11, p01, p10);
+            }
+        }
+        long triangles = usedHeap() - empty;
+        System.out.printf("heap of %d triangles: %.1f MB (%d bytes each)%n",
+                terrain.length, triangles / 1e6, triangles / terrain.length);
+
+        Geometries geometries = new Geometries(terrain).buildTree();
+        long tree = usedHeap() - empty;
+        System.out.printf("heap with the tree: %.1f MB, build %.1f ms%n", tree / 1e6, geometries.getBuildTime());
+
+        for (int run = 0; run < RUNS; run++) {
+            Random random = new Random(2);
+            double checksum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < RAYS; i++) {
+                Ray ray = new Ray(new Point(random.nextDouble() * SIZE, random.nextDouble() * SIZE, 50),
+                        new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+                GeoPoint hit = geometries.findClosestGeoIntersection(ray);
+                if (hit != null)
+                    checksum += hit.getNormal().getZ();
+            }
+            double traceTime = (System.nanoTime() - start) / 1e6;
+            System.out.printf("closest hit and normal: %d rays %.1f ms (checksum %f)%n", RAYS, traceTime, checksum);
+        }
+    }
+
+    /**
+     * Calculates a vertex of the terrain, on a surface of gentle waves.
+     *
+     * @param x the column of the vertex
+     * @param y the row of the vertex
+     * @return the vertex
+     */
+    private static Point vertex(int x, int y) {
+        return new Point(x, y, 3 * Math.sin(x * 0.1) * Math.cos(y * 0.07));
+    }
+
+    /**
+     * Collects the garbage and calculates the heap in use.
+     *
+     * @return the bytes of heap in use
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
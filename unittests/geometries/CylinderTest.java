@@ -5,7 +5,9 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for geometries.Cylinder class
@@ -46,4 +48,64 @@ class CylinderTest {
         // TC05: Test for getting a normal to a point on the cylinder's bottom base's center
         assertEquals(c1.axisRay.getDir().scale(-1), c1.getNormal(new Point(0, 0, 0)), "Cylinder getNormal() TC05 failed");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Cylinder#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Cylinder cylinder = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the side twice (2 points)
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)),
+                cylinder.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0))), "TC01: Wrong points");
+        // TC02: Ray crosses both bases (2 points)
+        assertEquals(List.of(new Point(0.5, 0, 0), new Point(0.5, 0, 2)),
+                cylinder.findIntersections(new Ray(new Point(0.5, 0, -1), new Vector(0, 0, 1))), "TC02: Wrong points");
+        // TC03: Ray crosses the side and the bottom base (2 points)
+        assertEquals(List.of(new Point(-1, 0, 0.5), new Point(-0.5, 0, 0)),
+                cylinder.findIntersections(new Ray(new Point(-2, 0, 1.5), new Vector(1, 0, -1))), "TC03: Wrong points");
+        // TC04: Ray crosses the tube of the cylinder above the cylinder (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))),
+                "TC04: Wrong number of points");
+        // TC05: Ray starts inside the cylinder (1 point)
+        assertEquals(List.of(new Point(0, 0, 2)),
+                cylinder.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1))), "TC05: Wrong points");
+        // TC06: Ray starts after the cylinder (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(0, 0, 3), new Vector(0, 0, 1))),
+                "TC06: Wrong number of points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray in the plane of the top base (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(-2, 0, 2), new Vector(1, 0, 0))), "TC11: Ray on a base");
+        // TC12: Ray enters through the rim of the top base (1 point)
+        assertEquals(List.of(new Point(1, 0, 1)),
+                cylinder.findIntersections(new Ray(new Point(-2, 0, 2.5), new Vector(1, 0, -0.5))), "TC12: Wrong points");
+        // TC13: Ray starts on the bottom base and goes inside (1 point)
+        assertEquals(List.of(new Point(0, 0, 2)),
+                cylinder.findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))), "TC13: Wrong points");
+        // TC14: The closest point is the first point
+        assertEquals(new Point(0.5, 0, 0), cylinder.findClosestGeoIntersection(
+                new Ray(new Point(0.5, 0, -1), new Vector(0, 0, 1))).point, "TC14: Wrong closest point");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A cylinder with a diagonal axis is bounded by its bases
+        Cylinder diagonal = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(1, 1, 0)), 2 * Math.sqrt(2));
+        double extent = Math.sqrt(0.5);
+        assertEquals(new Point(-extent, -extent, -1), diagonal.getBoundingBox().getMinPoint(), "TC01: Wrong minimum");
+        assertEquals(new Point(2 + extent, 2 + extent, 1), diagonal.getBoundingBox().getMaxPoint(), "TC01: Wrong maximum");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A cylinder with an axis along y, whose axis ray starts at the bottom base
+        Cylinder upright = new Cylinder(2, new Ray(new Point(1, 1, 1), new Vector(0, 1, 0)), 3);
+        assertEquals(new Point(-1, 1, -1), upright.getBoundingBox().getMinPoint(), "TC11: Wrong minimum");
+        assertEquals(new Point(3, 4, 3), upright.getBoundingBox().getMaxPoint(), "TC11: Wrong maximum");
+    }
+}
@@ -1,12 +1,23 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Transform;
 import primitives.Vector;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for geometries.Geometries class
@@ -41,4 +52,422 @@ public class GeometriesTests {
         geometries = new Geometries();
         assertNull(geometries.findIntersections(new Ray(new Point(0, 0, 2), new Vector(0, 0, -1))), "Wrong number of points");
     }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildTree()}.
+     */
+    @Test
+    void testBuildTree() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Spheres spread along the Y axis - the tree finds the same points as the flat list
+        Geometries flat = new Geometries();
+        Geometries tree = new Geometries();
+        for (int i = 0; i < 100; i++) {
+            Sphere sphere = new Sphere(0.4, new Point(0, i, 0));
+            flat.add(sphere);
+            tree.add(sphere);
+        }
+        tree.buildTree();
+        Ray ray = new Ray(new Point(-5, 37, 0), new Vector(1, 0, 0));
+        assertEquals(flat.findIntersections(ray), tree.findIntersections(ray), "TC01: Wrong points in tree");
+        assertNull(tree.findIntersections(new Ray(new Point(-5, 37.5, 0), new Vector(1, 0, 0))), "TC01: No points expected");
+
+        // TC02: the SAH cost of the tree is much lower than checking all the spheres
+        assertTrue(tree.getSahCost() < 10, "TC02: SAH cost of the tree is too high");
+
+        // TC03: Geometries added after the build are found as well
+        Sphere added = new Sphere(0.4, new Point(5, 37, 0));
+        tree.add(added);
+        assertEquals(4, tree.findIntersections(ray).size(), "TC03: Wrong number of points after adding a sphere");
+        tree.buildTree();
+        assertEquals(4, tree.findIntersections(ray).size(), "TC03: Wrong number of points after rebuilding");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Unbounded geometry is kept outside the tree
+        Geometries mixed = new Geometries(new Plane(new Point(0, 0, -1), new Vector(0, 0, 1)),
+                new Sphere(1, new Point(0, 0, 5)), new Sphere(1, new Point(5, 0, 5)), new Sphere(1, new Point(10, 0, 5)));
+        assertDoesNotThrow(() -> mixed.buildTree(), "TC11: Failed building a tree with unbounded geometry");
+        assertNull(mixed.getBoundingBox(), "TC11: Geometries with unbounded geometry must be unbounded");
+        assertEquals(3, mixed.findIntersections(new Ray(new Point(5, 0, 10), new Vector(0, 0, -1))).size(),
+                "TC11: Wrong number of points");
+
+        // TC12: Nested groups of geometries are compiled into the tree
+        Geometries nested = new Geometries(new Geometries(new Sphere(1, new Point(0, 0, 5)),
+                new Geometries(new Sphere(1, new Point(0, 0, 0)))), new Sphere(1, new Point(0, 0, -5)));
+        nested.buildTree();
+        assertEquals(6, nested.findIntersections(new Ray(new Point(0, 0, 10), new Vector(0, 0, -1))).size(),
+                "TC12: Wrong number of points");
+
+        // TC13: Empty geometries
+        assertNull(new Geometries().buildTree(), "TC13: Empty geometries has no tree");
+
+        // TC14: Unbounded geometry nested with bounded geometries is moved beside the tree
+        Geometries ground = new Geometries(new Plane(new Point(0, 0, -1), new Point(1, 0, -1), new Point(0, 1, -1)));
+        for (int i = 0; i < 100; i++)
+            ground.add(new Sphere(0.4, new Point(0, i, 0)));
+        Geometries scene = new Geometries(ground, new Tube(1, new Ray(new Point(50, 0, 0), new Vector(0, 1, 0))));
+        scene.buildTree();
+        assertTrue(scene.getSahCost() < 10, "TC14: The bounded geometries are not in the tree");
+        assertEquals(3, scene.findIntersections(new Ray(new Point(0, 37, 5), new Vector(0, 0, -1))).size(),
+                "TC14: Wrong number of points");
+
+        // TC15: Only empty nested geometries
+        assertDoesNotThrow(() -> new Geometries(new Geometries()).buildTree(), "TC15: Failed building empty nested geometries");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#setBuildThreads(int)}.
+     */
+    @Test
+    void testParallelBuildTree() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A parallel build gives the same tree as the serial build
+        Random random = new Random(5783);
+        Geometries serial = new Geometries();
+        Geometries parallel = new Geometries().setBuildThreads(4);
+        for (int i = 0; i < 20000; i++) {
+            Sphere sphere = new Sphere(0.5, new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100));
+            serial.add(sphere);
+            parallel.add(sphere);
+        }
+        serial.buildTree();
+        parallel.buildTree();
+        assertEquals(serial.getSahCost(), parallel.getSahCost(), "TC01: Parallel tree is different from the serial tree");
+        for (int i = 0; i < 50; i++) {
+            Ray ray = new Ray(new Point(-1, random.nextDouble() * 100, random.nextDouble() * 100), new Vector(1, 0, 0));
+            assertEquals(serial.findIntersections(ray), parallel.findIntersections(ray), "TC01: Wrong points in parallel tree");
+        }
+        assertFalse(Double.isNaN(parallel.getBuildTime()), "TC01: Build time was not measured");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero threads
+        assertThrows(IllegalArgumentException.class, () -> serial.setBuildThreads(0), "TC11: Zero build threads are illegal");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildTree(Geometries.BuildMode)}.
+     */
+    @Test
+    void testLinearBuildTree() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The linear tree finds the same points as the SAH tree
+        Random random = new Random(4493);
+        Geometries sah = new Geometries();
+        Geometries linear = new Geometries();
+        Geometries parallel = new Geometries().setBuildThreads(4);
+        for (int i = 0; i < 20000; i++) {
+            Sphere sphere = new Sphere(0.5, new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100));
+            sah.add(sphere);
+            linear.add(sphere);
+            parallel.add(sphere);
+        }
+        sah.buildTree(Geometries.BuildMode.SAH);
+        linear.buildTree(Geometries.BuildMode.LINEAR);
+        for (int i = 0; i < 50; i++) {
+            Ray ray = new Ray(new Point(-1, random.nextDouble() * 100, random.nextDouble() * 100), new Vector(1, 0, 0));
+            List<Point> expected = sah.findIntersections(ray);
+            List<Point> result = linear.findIntersections(ray);
+            assertEquals(expected == null ? null : new HashSet<>(expected), result == null ? null : new HashSet<>(result),
+                    "TC01: Wrong points in linear tree");
+        }
+
+        // TC02: A parallel linear build gives the same tree as the serial linear build
+        parallel.buildTree(Geometries.BuildMode.LINEAR);
+        assertEquals(linear.getSahCost(), parallel.getSahCost(), "TC02: Parallel tree is different from the serial tree");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Geometries in the same place can not be told apart by their Morton codes
+        Geometries same = new Geometries();
+        for (int i = 0; i < 10; i++)
+            same.add(new Sphere(1, new Point(0, 0, 0)));
+        same.buildTree(Geometries.BuildMode.LINEAR);
+        assertEquals(20, same.findIntersections(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1))).size(),
+                "TC11: Wrong number of points");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#refit()}.
+     */
+    @Test
+    void testRefit() {
+        Geometries geometries = new Geometries();
+        Sphere[] spheres = new Sphere[100];
+        for (int i = 0; i < spheres.length; i++) {
+            spheres[i] = new Sphere(0.4, new Point(i, 0, 0));
+            geometries.add(spheres[i]);
+        }
+        geometries.buildTree();
+        double builtCost = geometries.getSahCost();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A sphere moved along a path is found in its new place only
+        Sphere moved = new Sphere(0.4, new Point(50, 3, 0));
+        geometries.replace(spheres[50], moved).refit();
+        assertNull(geometries.findIntersections(new Ray(new Point(50, 0, 5), new Vector(0, 0, -1))),
+                "TC01: The sphere was found in its old place");
+        assertEquals(2, geometries.findIntersections(new Ray(new Point(50, 3, 5), new Vector(0, 0, -1))).size(),
+                "TC01: The sphere was not found in its new place");
+        assertNotEquals(builtCost, geometries.getSahCost(), "TC01: The SAH cost was not updated");
+
+        // TC02: Moving many spheres far away makes the tree worse than the threshold, so it is rebuilt
+        geometries.setRefitThreshold(1.2);
+        for (int i = 1; i < spheres.length; i += 2)
+            geometries.replace(spheres[i], new Sphere(0.4, new Point(i, 1000, 0)));
+        geometries.refit();
+        assertTrue(geometries.getSahCost() <= 1.2 * builtCost, "TC02: The tree was not rebuilt");
+        assertEquals(2, geometries.findIntersections(new Ray(new Point(21, 1000, 5), new Vector(0, 0, -1))).size(),
+                "TC02: The sphere was not found in its new place");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Replacing a geometry that is not in the tree
+        assertThrows(IllegalArgumentException.class, () -> geometries.replace(spheres[50], moved),
+                "TC11: Replaced a geometry that is not in the tree");
+
+        // TC12: Threshold lower than 1
+        assertThrows(IllegalArgumentException.class, () -> geometries.setRefitThreshold(0.5),
+                "TC12: Refit threshold lower than 1 is illegal");
+
+        // TC13: Updating a geometry that is not in the geometries, before and after the tree is built
+        Sphere nested = new Sphere(1, new Point(0, 0, 0));
+        Geometries unbuilt = new Geometries(new Geometries(nested));
+        assertSame(unbuilt, unbuilt.update(nested), "TC13: A nested geometry was not updated");
+        assertThrows(IllegalArgumentException.class, () -> unbuilt.update(spheres[0]),
+                "TC13: Updated a geometry that is not in the geometries");
+        assertThrows(IllegalArgumentException.class, () -> geometries.update(nested),
+                "TC13: Updated a geometry that is not in the tree");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Random random = new Random(7321);
+        Geometries list = new Geometries();
+        Geometries tree = new Geometries();
+        for (int i = 0; i < 2000; i++) {
+            Sphere sphere = new Sphere(0.5, new Point(random.nextDouble() * 50, random.nextDouble() * 50, random.nextDouble() * 50));
+            list.add(sphere);
+            tree.add(sphere);
+        }
+        tree.buildTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest point is the closest of all the intersections, with and without the tree
+        for (int i = 0; i < 100; i++) {
+            Point head = new Point(-10, random.nextDouble() * 50, random.nextDouble() * 50);
+            Ray ray = new Ray(head, new Vector(10 + random.nextDouble() * 50, random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5));
+            List<Intersectable.GeoPoint> all = list.findGeoIntersections(ray);
+            Intersectable.GeoPoint expected = all == null ? null : ray.findClosestGeoPoint(all);
+            assertEquals(expected, list.findClosestGeoIntersection(ray), "TC01: Wrong closest point without tree");
+            assertEquals(expected, tree.findClosestGeoIntersection(ray), "TC01: Wrong closest point in tree");
+        }
+
+        // TC02: The ray misses all the geometries
+        assertNull(tree.findClosestGeoIntersection(new Ray(new Point(-10, 0, 0), new Vector(-1, 0, 0))),
+                "TC02: No point expected");
+
+        // =============== Boundary Values Tests ==================
+        Geometries row = new Geometries(new Sphere(1, new Point(5, 0, 0)), new Sphere(1, new Point(10, 0, 0)));
+        row.buildTree();
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+        // TC11: Only the points closer than the maximum distance are considered
+        assertEquals(new Point(4, 0, 0), row.findClosestGeoIntersection(ray, 5).point, "TC11: Wrong closest point");
+
+        // TC12: The closest point is exactly at the maximum distance
+        assertNull(row.findClosestGeoIntersection(ray, 4), "TC12: No point expected at the maximum distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestDistance(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestDistance() {
+        Random random = new Random(2917);
+        Geometries list = new Geometries();
+        Geometries tree = new Geometries();
+        for (int i = 0; i < 500; i++) {
+            Point center = new Point(random.nextDouble() * 50, random.nextDouble() * 50, random.nextDouble() * 50);
+            Geometry geometry = i % 2 == 0 ? new Sphere(0.5, center)
+                    : new Triangle(center, center.add(new Vector(1, 0, 0)), center.add(new Vector(0, 1, 1)));
+            list.add(geometry);
+            tree.add(geometry);
+        }
+        // an instance and a grid hold geometries of their own
+        Instance instance = new Instance(new Geometries(new Sphere(2, new Point(0, 0, 0))),
+                Transform.scaling(3, 1, 1).then(Transform.translation(new Vector(25, 25, 25))));
+        Intersectable[] cells = new Intersectable[50];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = new Sphere(0.5, new Point(random.nextDouble() * 50, random.nextDouble() * 50, random.nextDouble() * 50));
+        UniformGrid grid = new UniformGrid(cells);
+        list.add(instance, grid);
+        tree.add(instance, grid);
+        tree.buildTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The distance is the distance of the closest point along the ray, with and without the tree
+        for (int i = 0; i < 200; i++) {
+            Point head = new Point(-10, random.nextDouble() * 50, random.nextDouble() * 50);
+            Ray ray = new Ray(head, new Vector(10 + random.nextDouble() * 50, random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5));
+            for (Geometries geometries : List.of(list, tree)) {
+                Intersectable.GeoPoint expected = geometries.findClosestGeoIntersection(ray);
+                double distance = geometries.findClosestDistance(ray, Double.POSITIVE_INFINITY);
+                if (expected == null)
+                    assertEquals(Double.POSITIVE_INFINITY, distance, "TC01: No distance expected");
+                else
+                    assertEquals(expected.point.distance(head), distance, 1e-9, "TC01: Wrong distance");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        Geometries row = new Geometries(new Sphere(1, new Point(5, 0, 0)), new Sphere(1, new Point(10, 0, 0)));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+        // TC11: Only the points closer than the maximum distance are considered
+        assertEquals(4, row.findClosestDistance(ray, 5), 1e-12, "TC11: Wrong distance");
+        // TC12: The closest point is exactly at the maximum distance
+        assertEquals(Double.POSITIVE_INFINITY, row.findClosestDistance(ray, 4), "TC12: No distance expected");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransmittance(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testFindTransmittance() {
+        Geometries geometries = new Geometries(
+                new Sphere(1, new Point(5, 0, 0)).setMaterial(new Material().setKT(0.5)),
+                new Sphere(1, new Point(10, 0, 0)).setMaterial(new Material().setKT(0.5)),
+                new Sphere(1, new Point(15, 0, 0)),
+                new Sphere(1, new Point(0, 5, 0)));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Transparent geometries before the distance, with and without the tree
+        assertEquals(new Double3(0.0625), geometries.findTransmittance(ray, 12, 0.001), "TC01: Wrong transmittance");
+        geometries.buildTree();
+        assertEquals(new Double3(0.0625), geometries.findTransmittance(ray, 12, 0.001), "TC01: Wrong transmittance in tree");
+
+        // TC02: An opaque geometry blocks the ray
+        assertEquals(Double3.ZERO, geometries.findTransmittance(ray, 20, 0.001), "TC02: The ray is not blocked");
+
+        // TC03: No geometry before the distance
+        assertEquals(Double3.ONE, geometries.findTransmittance(ray, 3, 0.001), "TC03: The ray is blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The transmittance drops below the minimum
+        assertEquals(Double3.ZERO, geometries.findTransmittance(ray, 12, 0.1), "TC11: The ray is not blocked");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#setCompactBounds(int)}.
+     */
+    @Test
+    void testCompactBounds() {
+        Random random = new Random(9157);
+        Plane ground = new Plane(new Point(0, 0, -1), new Vector(0, 0, 1));
+        Geometries exact = new Geometries(ground);
+        Geometries compact8 = new Geometries(ground).setCompactBounds(8);
+        Geometries compact16 = new Geometries(ground).setCompactBounds(16);
+        for (int i = 0; i < 5000; i++) {
+            Sphere sphere = new Sphere(0.2, new Point(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100));
+            exact.add(sphere);
+            compact8.add(sphere);
+            compact16.add(sphere);
+        }
+        exact.buildTree();
+        compact8.buildTree();
+        compact16.buildTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The compact trees find the same points as the exact tree
+        for (int i = 0; i < 200; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 100, random.nextDouble() * 100, 150),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Intersectable.GeoPoint expected = exact.findClosestGeoIntersection(ray);
+            assertEquals(expected, compact8.findClosestGeoIntersection(ray), "TC01: Wrong closest point with 8 bits");
+            assertEquals(expected, compact16.findClosestGeoIntersection(ray), "TC01: Wrong closest point with 16 bits");
+            assertEquals(exact.findGeoIntersections(ray).size(), compact8.findGeoIntersections(ray).size(),
+                    "TC01: Wrong number of points with 8 bits");
+        }
+
+        // TC02: Compact bounds take less memory
+        assertTrue(compact16.getBytesPerNode() < exact.getBytesPerNode(), "TC02: 16 bits bounds are not smaller");
+        assertTrue(compact8.getBytesPerNode() < compact16.getBytesPerNode(), "TC02: 8 bits bounds are not smaller");
+
+        // TC03: A geometry of a compact tree is found in its new place after a refit
+        Sphere moved = new Sphere(0.2, new Point(50, 50, 120));
+        Intersectable first = compact8.getGeometries().get(1);
+        compact8.replace(first, moved).refit();
+        assertEquals(new Point(50, 50, 120.2),
+                compact8.findClosestGeoIntersection(new Ray(new Point(50, 50, 150), new Vector(0, 0, -1))).point,
+                "TC03: The moved geometry was not found");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Illegal number of bits
+        assertThrows(IllegalArgumentException.class, () -> exact.setCompactBounds(12), "TC11: 12 bits bounds are illegal");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#setTreeCache(java.nio.file.Path)}.
+     *
+     * @param directory a temporary directory for the files of the trees
+     * @throws IOException if the files of the trees cannot be listed
+     */
+    @Test
+    void testTreeCache(@TempDir Path directory) throws IOException {
+        Random random = new Random(6203);
+        Plane ground = new Plane(new Point(0, 0, -1), new Vector(0, 0, 1));
+        Sphere[] spheres = new Sphere[3000];
+        for (int i = 0; i < spheres.length; i++)
+            spheres[i] = new Sphere(0.3, new Point(random.nextDouble() * 60, random.nextDouble() * 60, random.nextDouble() * 60));
+        Geometries built = new Geometries(ground).setTreeCache(directory);
+        built.add(spheres);
+        built.buildTree();
+        Geometries plain = new Geometries(ground);
+        plain.add(spheres);
+        plain.buildTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The build saves the tree to a file
+        List<Path> files;
+        try (var list = Files.list(directory)) {
+            files = list.toList();
+        }
+        assertEquals(1, files.size(), "TC01: Wrong number of tree files");
+        Path file = files.get(0);
+        FileTime saved = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(file, saved);
+
+        // TC02: A build of the same geometries loads the tree, and finds the same points
+        Geometries loaded = new Geometries(ground).setTreeCache(directory);
+        loaded.add(spheres);
+        loaded.buildTree();
+        assertEquals(saved, Files.getLastModifiedTime(file), "TC02: The tree was built again");
+        assertEquals(plain.getSahCost(), loaded.getSahCost(), 1e-9, "TC02: Wrong cost of the loaded tree");
+        for (int i = 0; i < 200; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 60, random.nextDouble() * 60, 100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            assertEquals(plain.findClosestGeoIntersection(ray), loaded.findClosestGeoIntersection(ray),
+                    "TC02: Wrong closest point");
+            assertEquals(plain.findGeoIntersections(ray).size(), loaded.findGeoIntersections(ray).size(),
+                    "TC02: Wrong number of points");
+        }
+
+        // TC03: Other geometries do not load the tree
+        Geometries other = new Geometries(spheres).setTreeCache(directory);
+        other.buildTree(Geometries.BuildMode.LINEAR);
+        try (var list = Files.list(directory)) {
+            assertEquals(2, list.count(), "TC03: Wrong number of tree files");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A damaged file is skipped and the tree is built again
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7});
+        Geometries rebuilt = new Geometries(ground).setTreeCache(directory);
+        rebuilt.add(spheres);
+        rebuilt.buildTree();
+        assertEquals(plain.getSahCost(), rebuilt.getSahCost(), 1e-9, "TC11: Wrong cost of the rebuilt tree");
+        Ray ray = new Ray(new Point(30, 30, 100), new Vector(0, 0, -1));
+        assertEquals(plain.findClosestGeoIntersection(ray), rebuilt.findClosestGeoIntersection(ray), "TC11: Wrong closest point");
+        assertTrue(Files.size(file) > 7, "TC11: The damaged file was not replaced");
+    }
 }
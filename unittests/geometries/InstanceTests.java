@@ -0,0 +1,62 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.Instance class
+ */
+public class InstanceTests {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * Test method for {@link geometries.Instance#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Geometries shared = new Geometries(new Sphere(1, new Point(0, 0, 0)), new Sphere(1, new Point(0, 0, 3)));
+        Instance moved = new Instance(shared, Transform.translation(new Vector(10, 0, 0)));
+        Instance scaled = new Instance(shared, Transform.scaling(2, 1, 1).then(Transform.translation(new Vector(-10, 0, 0))));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The points are found where the instance is
+        assertEquals(4, moved.findIntersections(new Ray(new Point(10, 0, 10), new Vector(0, 0, -1))).size(),
+                "TC01: Wrong number of points");
+        assertNull(moved.findIntersections(new Ray(new Point(0, 0, 10), new Vector(0, 0, -1))),
+                "TC01: The shared geometries were found in their own place");
+
+        // TC02: The closest point and the normal of a scaled instance
+        Intersectable.GeoPoint geoPoint = scaled.findClosestGeoIntersection(new Ray(new Point(-20, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(0, geoPoint.point.distance(new Point(-12, 0, 0)), DELTA, "TC02: Wrong closest point");
+        assertEquals(0, geoPoint.getNormal().distance(new Vector(-1, 0, 0)), DELTA, "TC02: Wrong normal");
+        assertEquals(8, geoPoint.t, DELTA, "TC02: Wrong distance along the ray in the scene");
+
+        // TC03: The distance limit is a distance in the scene, not in the shared geometries
+        assertNull(scaled.findClosestGeoIntersection(new Ray(new Point(-20, 0, 0), new Vector(1, 0, 0)), 7.5),
+                "TC03: The point is beyond the distance");
+
+        // TC04: A tree over many instances of the same geometries
+        Geometries scene = new Geometries();
+        for (int i = 0; i < 100; i++)
+            scene.add(new Instance(shared, Transform.rotation(new Vector(0, 0, 1), 3.6 * i)
+                    .then(Transform.translation(new Vector(i * 5 + 1, 0, 0)))));
+        scene.buildTree();
+        assertTrue(scene.getSahCost() < 10, "TC04: The instances are not in a tree");
+        assertEquals(4, scene.findIntersections(new Ray(new Point(186, 0, 10), new Vector(0, 0, -1))).size(),
+                "TC04: Wrong number of points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A singular transform
+        assertThrows(IllegalArgumentException.class,
+                () -> new Instance(shared, Transform.rotation(new Vector(0, 0, 1), 90).then(Transform.scaling(1e-20))),
+                "TC11: Singular transform is illegal");
+    }
+}
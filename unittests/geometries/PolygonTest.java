@@ -2,8 +2,11 @@ package geometries;
 
 import org.junit.jupiter.api.Test;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static primitives.Util.isZero;
 
@@ -81,37 +84,51 @@ public class PolygonTest {
                     "Polygon's normal is not orthogonal to one of the edges");
     }
 
-    /*
     /**
      * Test method for {@link geometries.Polygon#findIntersections(primitives.Ray)}.
-     --
-     @Test
-     public void testFindIntersections() {
-     Polygon square = new Polygon(new Point(0, 0, 0), new Point(2, 0, 0),
-     new Point(2, 2, 0),new Point(0, 2, 0));
-
-     // ============ Equivalence Partitions Tests ==============
-     // TC01: Inside square(1 point)
-     Point p1 = new Point(1, 1, 0);
-     List<Point> result = square.findIntersections(new Ray(new Vector(1, 1, -1), new Point(0, 0, 1)));
-     assertEquals( 1, result.size(),"Wrong number of points");
-     assertEquals(List.of(p1), result,"Ray crosses square");
-
-     // TC02: Outside against edge(0 points)
-     assertNull(square.findIntersections(new Ray(new Vector(3, 3, -1), new Point(0, 0, 1)))
-     ,"Outside against edge");
-
-     // TC03: Outside against vertex(0 points)
-     assertNull(square.findIntersections(new Ray(new Vector(1, 3, -1), new Point(0, 0, 1))),"Outside against vertex");
-
-     // =============== Boundary Values Tests ==================
-     // TC04: ray crosses edge (0 points)
-     assertNull(square.findIntersections(new Ray(new Vector(2, 0, -1), new Point(0, 0, 1))),"Outside against vertex");
-
-     // TC05: ray crosses vertex (0 points)
-     assertNull(square.findIntersections(new Ray(new Vector(1, 0, -1), new Point(0, 0, 1))),"Outside against vertex");
-
-     // TC06: ray crosses edge's continuation (0 points)
-     assertNull(square.findIntersections(new Ray(new Vector(3, 0, -1), new Point(0, 0, 1))),"Outside against vertex");
-     }*/
+     */
+    @Test
+    public void testFindIntersections() {
+        Polygon square = new Polygon(new Point(0, 0, 0), new Point(2, 0, 0),
+                new Point(2, 2, 0), new Point(0, 2, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Inside square(1 point)
+        Point p1 = new Point(1, 1, 0);
+        List<Point> result = square.findIntersections(new Ray(new Vector(1, 1, -1), new Point(0, 0, 1)));
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(List.of(p1), result, "Ray crosses square");
+
+        // TC02: Outside against edge(0 points)
+        assertNull(square.findIntersections(new Ray(new Vector(3, 1, -1), new Point(0, 0, 1))),
+                "Outside against edge");
+
+        // TC03: Outside against vertex(0 points)
+        assertNull(square.findIntersections(new Ray(new Vector(3, 3, -1), new Point(0, 0, 1))), "Outside against vertex");
+
+        // TC04: A pentagon whose dominant axis is y, from both sides (1 point)
+        Polygon pentagon = new Polygon(new Point(0, 0, 0), new Point(2, 0.2, 0), new Point(3, 0.7, 2),
+                new Point(1, 0.7, 3), new Point(-1, 0.1, 1));
+        Point p2 = new Point(1, 0.4, 1.5);
+        assertEquals(List.of(p2), pentagon.findIntersections(new Ray(new Point(1, 5, 1.5), new Vector(0, -1, 0))),
+                "Ray crosses pentagon from above");
+        assertEquals(List.of(p2), pentagon.findIntersections(new Ray(new Point(1, -5, 1.5), new Vector(0, 1, 0))),
+                "Ray crosses pentagon from below");
+        assertNull(pentagon.findIntersections(new Ray(new Point(2.9, 5, 0.2), new Vector(0, -1, 0))),
+                "Ray outside the pentagon but inside its bounding box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray crosses edge (0 points)
+        assertNull(square.findIntersections(new Ray(new Vector(1, 0, -1), new Point(0, 0, 1))), "On an edge");
+
+        // TC12: ray crosses vertex (0 points)
+        assertNull(square.findIntersections(new Ray(new Vector(2, 0, -1), new Point(0, 0, 1))), "On a vertex");
+
+        // TC13: ray crosses edge's continuation (0 points)
+        assertNull(square.findIntersections(new Ray(new Vector(3, 0, -1), new Point(0, 0, 1))),
+                "On the continuation of an edge");
+
+        // TC14: ray parallel to the square (0 points)
+        assertNull(square.findIntersections(new Ray(new Vector(1, 0, 0), new Point(0, 1, 1))), "Parallel ray");
+    }
 }
@@ -130,4 +130,39 @@ class SphereTest {
         assertNull(sphere2.findIntersections(new Ray(new Vector(1, 0, 0), new Point(2, 0, 2))),
                 "Ray orthogonal to ray head -> O line");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Sphere#intersect(primitives.Ray, double)}.
+     */
+    @Test
+    void testIntersect() {
+        Sphere sphere = new Sphere(1, new Point(0, 0, 5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The nearest root of a ray crossing the sphere
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+        assertEquals(4, sphere.intersect(ray, 0), 1e-12, "TC01: Wrong nearest distance");
+        // TC02: The farther root, beyond the nearest one
+        assertEquals(6, sphere.intersect(ray, 4), 1e-12, "TC02: Wrong farther distance");
+        // TC03: A ray that misses the sphere
+        assertEquals(Double.POSITIVE_INFINITY, sphere.intersect(new Ray(new Point(2, 0, 0), new Vector(0, 0, 1)), 0),
+                "TC03: A ray that misses");
+        // TC04: A ray starting inside the sphere
+        assertEquals(0.5, sphere.intersect(new Ray(new Point(0, 0, 5.5), new Vector(0, 0, 1)), 0), 1e-12,
+                "TC04: Wrong distance from inside");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray starting at the center
+        assertEquals(1, sphere.intersect(new Ray(new Point(0, 0, 5), new Vector(1, 1, 0)), 0), 1e-12,
+                "TC11: Wrong distance from the center");
+        // TC12: A ray tangent to the sphere
+        assertEquals(Double.POSITIVE_INFINITY, sphere.intersect(new Ray(new Point(1, 0, 0), new Vector(0, 0, 1)), 0),
+                "TC12: A tangent ray");
+        // TC13: A ray starting on the sphere and going out
+        assertEquals(Double.POSITIVE_INFINITY, sphere.intersect(new Ray(new Point(0, 0, 6), new Vector(0, 0, 1)), 0),
+                "TC13: A ray going out of the sphere");
+        // TC14: The closest point is found only closer than the maximum distance
+        assertNull(sphere.findClosestGeoIntersection(ray, 4), "TC14: A point at the maximum distance");
+        assertEquals(new Point(0, 0, 4), sphere.findClosestGeoIntersection(ray, 5).point, "TC14: Wrong point");
+    }
+}
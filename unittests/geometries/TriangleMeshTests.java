@@ -0,0 +1,264 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ */
+public class TriangleMeshTests {
+    /**
+     * The number of vertices along each side of the test terrain.
+     */
+    private static final int SIZE = 41;
+
+    /**
+     * Creates the vertices of a bumpy terrain over the square [0, SIZE - 1] of the xy plane.
+     *
+     * @return the coordinates of the vertices
+     */
+    private static double[] terrainVertices() {
+        double[] vertices = new double[3 * SIZE * SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                int v = 3 * (SIZE * x + y);
+                vertices[v] = x;
+                vertices[v + 1] = y;
+                vertices[v + 2] = Math.sin(x * 0.7) + Math.cos(y * 0.3);
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Creates the faces of the terrain, two faces per square of four vertices.
+     *
+     * @return the vertex indices of the faces
+     */
+    private static int[] terrainFaces() {
+        int[] faces = new int[6 * (SIZE - 1) * (SIZE - 1)];
+        int f = 0;
+        for (int x = 0; x < SIZE - 1; x++) {
+            for (int y = 0; y < SIZE - 1; y++) {
+                int v = SIZE * x + y;
+                faces[f++] = v;
+                faces[f++] = v + SIZE;
+                faces[f++] = v + 1;
+                faces[f++] = v + SIZE + 1;
+                faces[f++] = v + 1;
+                faces[f++] = v + SIZE;
+            }
+        }
+        return faces;
+    }
+
+    /**
+     * Creates the faces of the terrain as separate triangles.
+     *
+     * @param vertices the coordinates of the vertices
+     * @param faces    the vertex indices of the faces
+     * @return the triangles
+     */
+    private static Geometries triangles(double[] vertices, int[] faces) {
+        Geometries geometries = new Geometries();
+        for (int f = 0; f < faces.length; f += 3) {
+            Point[] points = new Point[3];
+            for (int k = 0; k < 3; k++)
+                points[k] = new Point(vertices[3 * faces[f + k]], vertices[3 * faces[f + k] + 1], vertices[3 * faces[f + k] + 2]);
+            geometries.add(new Triangle(points[0], points[1], points[2]));
+        }
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(primitives.Ray)} and
+     * {@link geometries.TriangleMesh#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        double[] vertices = terrainVertices();
+        int[] faces = terrainFaces();
+        TriangleMesh mesh = new TriangleMesh(vertices, faces);
+        Geometries triangles = triangles(vertices, faces);
+        Random random = new Random(5821);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The mesh finds the same points as separate triangles, with the same normals
+        for (int i = 0; i < 300; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 40, random.nextDouble() * 40, 10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Intersectable.GeoPoint expected = triangles.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint actual = mesh.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                assertNull(actual, "TC01: No point expected");
+                continue;
+            }
+            assertTrue(expected.point.distance(actual.point) < 1e-9, "TC01: Wrong closest point");
+            assertEquals(1, expected.getNormal().dotProduct(actual.getNormal()), 1e-9, "TC01: Wrong normal");
+            assertEquals(triangles.findGeoIntersections(ray).size(), mesh.findGeoIntersections(ray).size(),
+                    "TC01: Wrong number of points");
+        }
+
+        // TC02: A ray along the terrain crosses it several times
+        Ray along = new Ray(new Point(-1, 20.5, 1.2), new Vector(1, 0, 0));
+        List<Intersectable.GeoPoint> expected = triangles.findGeoIntersections(along);
+        assertEquals(expected.size(), mesh.findGeoIntersections(along).size(), "TC02: Wrong number of points");
+        assertEquals(along.findClosestGeoPoint(expected).point, mesh.findClosestGeoIntersection(along).point,
+                "TC02: Wrong closest point");
+
+        // TC03: A ray that misses the mesh
+        Ray miss = new Ray(new Point(-5, -5, 10), new Vector(0, 0, 1));
+        assertNull(mesh.findGeoIntersections(miss), "TC03: No points expected");
+        assertNull(mesh.findClosestGeoIntersection(miss), "TC03: No point expected");
+
+        // TC04: The mesh is a single primitive of a tree of the scene
+        Geometries scene = new Geometries(mesh, new Sphere(1, new Point(20, 20, 10))).buildTree();
+        Ray down = new Ray(new Point(7.3, 12.6, 20), new Vector(0, 0, -1));
+        assertEquals(triangles.findClosestGeoIntersection(down).point, scene.findClosestGeoIntersection(down).point,
+                "TC04: Wrong closest point in a tree");
+
+        // =============== Boundary Values Tests ==================
+        TriangleMesh square = new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0}, new int[]{0, 1, 2, 3, 2, 1});
+        // TC11: A ray through the edge shared by the faces, as with separate triangles
+        assertNull(square.findGeoIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1))),
+                "TC11: A ray through an edge");
+        // TC12: A ray through a vertex
+        assertNull(square.findGeoIntersections(new Ray(new Point(1, 1, 1), new Vector(0, 0, -1))),
+                "TC12: A ray through a vertex");
+        // TC13: A ray starting on a face
+        assertNull(square.findGeoIntersections(new Ray(new Point(0.2, 0.3, 0), new Vector(0, 0, -1))),
+                "TC13: A ray starting on a face");
+        // TC14: A ray parallel to the faces
+        assertNull(square.findGeoIntersections(new Ray(new Point(-1, 0.3, 0), new Vector(1, 0, 0))),
+                "TC14: A ray parallel to the faces");
+        // TC15: The maximum distance is exclusive
+        Ray ray = new Ray(new Point(0.2, 0.3, 1), new Vector(0, 0, -1));
+        assertNull(square.findClosestGeoIntersection(ray, 1), "TC15: A point at the maximum distance");
+        assertEquals(new Point(0.2, 0.3, 0), square.findClosestGeoIntersection(ray, 1.5).point, "TC15: Wrong point");
+        // TC16: The normal of a point found otherwise
+        assertEquals(new Vector(0, 0, 1), square.getNormal(new Point(0.8, 0.9, 0)), "TC16: Wrong normal");
+        // TC17: A ray straight at tiny faces is not taken as parallel to them, as with a triangle
+        TriangleMesh tiny = new TriangleMesh(new double[]{0, 0, 0, 5e-7, 0, 0, 0, 5e-7, 0, 5e-7, 5e-7, 0},
+                new int[]{0, 1, 2, 3, 2, 1});
+        Intersectable.GeoPoint tinyPoint = tiny.findClosestGeoIntersection(new Ray(new Point(1e-7, 2e-7, 1), new Vector(0, 0, -1)));
+        assertNotNull(tinyPoint, "TC17: A ray missed tiny faces");
+        assertEquals(1, tinyPoint.t, 1e-12, "TC17: Wrong distance");
+    }
+
+    /**
+     * Test method for the points found by {@link geometries.TriangleMesh#findClosestGeoIntersection(primitives.Ray)}:
+     * their distance along the ray, their face, their barycentric coordinates and their normal.
+     */
+    @Test
+    void testGeoPoint() {
+        double[] vertices = terrainVertices();
+        TriangleMesh mesh = new TriangleMesh(vertices, terrainFaces());
+        int[] faces = mesh.getFaces();
+        Random random = new Random(3307);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The point is the weighted sum of the vertices of its face, at its distance along the ray
+        for (int i = 0; i < 100; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 40, random.nextDouble() * 40, 10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Intersectable.GeoPoint geoPoint = mesh.findClosestGeoIntersection(ray);
+            if (geoPoint == null)
+                continue;
+            assertEquals(0, ray.getPoint(geoPoint.t).distance(geoPoint.point), 1e-9, "TC01: Wrong distance");
+            int f = geoPoint.index;
+            double w = 1 - geoPoint.u - geoPoint.v;
+            for (int k = 0; k < 3; k++) {
+                double coordinate = w * vertices[3 * faces[3 * f] + k] + geoPoint.u * vertices[3 * faces[3 * f + 1] + k]
+                        + geoPoint.v * vertices[3 * faces[3 * f + 2] + k];
+                assertEquals(k == 0 ? geoPoint.point.getX() : k == 1 ? geoPoint.point.getY() : geoPoint.point.getZ(),
+                        coordinate, 1e-9, "TC01: Wrong face or barycentric coordinates");
+            }
+        }
+
+        // TC02: The normal is calculated once, and kept with the point
+        Intersectable.GeoPoint geoPoint = mesh.findClosestGeoIntersection(new Ray(new Point(7.3, 12.6, 20), new Vector(0, 0, -1)));
+        assertNull(geoPoint.normal, "TC02: The normal was calculated before it was needed");
+        assertSame(geoPoint.getNormal(), geoPoint.getNormal(), "TC02: The normal is not kept");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A point near the first vertex of its face
+        TriangleMesh square = new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0}, new int[]{0, 1, 2, 3, 2, 1});
+        geoPoint = square.findClosestGeoIntersection(new Ray(new Point(0.01, 0.02, 1), new Vector(0, 0, -1)));
+        assertEquals(1, geoPoint.t, 1e-12, "TC11: Wrong distance");
+        assertEquals(0.01, geoPoint.u, 1e-12, "TC11: Wrong barycentric coordinate");
+        assertEquals(0.02, geoPoint.v, 1e-12, "TC11: Wrong barycentric coordinate");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findTransmittance(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testFindTransmittance() {
+        // two parallel squares of a transparent mesh
+        TriangleMesh mesh = new TriangleMesh(new double[]{
+                0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0,
+                0, 0, 2, 1, 0, 2, 0, 1, 2, 1, 1, 2},
+                new int[]{0, 1, 2, 3, 2, 1, 4, 5, 6, 7, 6, 5});
+        mesh.setMaterial(new Material().setKT(0.5));
+        Ray ray = new Ray(new Point(0.2, 0.3, 3), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Both squares before the distance
+        assertEquals(new Double3(0.25), mesh.findTransmittance(ray, 5, 0.001), "TC01: Wrong transmittance");
+
+        // TC02: One square before the distance
+        assertEquals(new Double3(0.5), mesh.findTransmittance(ray, 2, 0.001), "TC02: Wrong transmittance");
+
+        // TC03: The ray is blocked
+        assertEquals(Double3.ZERO, mesh.findTransmittance(ray, 5, 0.3), "TC03: The ray is not blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No face before the distance
+        assertEquals(Double3.ONE, mesh.findTransmittance(ray, 1, 0.001), "TC11: The ray is blocked");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A mesh of shared vertices
+        TriangleMesh mesh = new TriangleMesh(terrainVertices(), terrainFaces());
+        assertEquals(SIZE * SIZE, mesh.getVertexCount(), "TC01: Wrong number of vertices");
+        assertEquals(2 * (SIZE - 1) * (SIZE - 1), mesh.getFaceCount(), "TC01: Wrong number of faces");
+
+        // TC02: A mesh of the tree of another mesh
+        TriangleMesh copy = new TriangleMesh(mesh.getVertices(), mesh.getFaces(), mesh.getNodes(), mesh.getNodeBounds());
+        Ray ray = new Ray(new Point(7.3, 12.6, 20), new Vector(0, 0, -1));
+        assertEquals(mesh.findClosestGeoIntersection(ray).point, copy.findClosestGeoIntersection(ray).point,
+                "TC02: Wrong point of a mesh of a tree");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A face of a vertex that does not exist
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "TC11: A face of a vertex that does not exist");
+        // TC12: No faces
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0}, new int[0]),
+                "TC12: A mesh of no faces");
+        // TC13: Coordinates that are not triples
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1}, new int[]{0, 0, 0}),
+                "TC13: Coordinates that are not triples");
+        // TC14: Nodes that are not a tree over the faces
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(mesh.getVertices(), mesh.getFaces(),
+                new int[]{0, 1, 0, 2}, new double[6]), "TC14: A node whose children are itself");
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(mesh.getVertices(), mesh.getFaces(),
+                new int[]{0, mesh.getFaceCount() + 1, 0, 0}, new double[6]), "TC14: A node of faces that do not exist");
+    }
+}
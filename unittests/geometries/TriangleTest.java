@@ -71,4 +71,43 @@ class TriangleTest {
         assertNull(tr.findIntersections(new Ray(new Point(-1, -2, -1), new Vector(0, 2, 3)))
                 , "Ray's crosses the triangle's edge");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Triangle#intersect(Ray, double[])}.
+     */
+    @Test
+    void testIntersect() {
+        Triangle tr = new Triangle(new Point(0, 0, 0), new Point(4, 0, 0), new Point(0, 2, 0));
+        double[] barycentric = new double[2];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The distance and the barycentric coordinates of a point inside the triangle
+        assertEquals(3, tr.intersect(new Ray(new Point(1, 0.5, 3), new Vector(0, 0, -1)), barycentric), 1e-12,
+                "TC01: Wrong distance");
+        assertEquals(0.25, barycentric[0], 1e-12, "TC01: Wrong weight of the second vertex");
+        assertEquals(0.25, barycentric[1], 1e-12, "TC01: Wrong weight of the third vertex");
+
+        // TC02: A ray from behind the triangle, diagonally
+        assertEquals(Math.sqrt(2), tr.intersect(new Ray(new Point(2, 0.5, -1), new Vector(-1, 0, 1)), null), 1e-12,
+                "TC02: Wrong distance");
+
+        // TC03: A ray pointing away from the triangle
+        assertEquals(Double.POSITIVE_INFINITY, tr.intersect(new Ray(new Point(1, 0.5, 3), new Vector(0, 0, 1)), null),
+                "TC03: A ray pointing away");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray parallel to the triangle
+        assertEquals(Double.POSITIVE_INFINITY, tr.intersect(new Ray(new Point(-1, 0.5, 0), new Vector(1, 0, 0)), null),
+                "TC11: A parallel ray");
+        // TC12: A ray through an edge
+        assertEquals(Double.POSITIVE_INFINITY, tr.intersect(new Ray(new Point(2, 1, 3), new Vector(0, 0, -1)), null),
+                "TC12: A ray through an edge");
+        // TC13: A ray starting on the triangle
+        assertEquals(Double.POSITIVE_INFINITY, tr.intersect(new Ray(new Point(1, 0.5, 0), new Vector(0, 0, -1)), null),
+                "TC13: A ray starting on the triangle");
+        // TC14: The closest point is found only closer than the maximum distance
+        Ray ray = new Ray(new Point(1, 0.5, 3), new Vector(0, 0, -1));
+        assertNull(tr.findClosestGeoIntersection(ray, 3), "TC14: A point at the maximum distance");
+        assertEquals(new Point(1, 0.5, 0), tr.findClosestGeoIntersection(ray, 4).point, "TC14: Wrong point");
+    }
+}
@@ -5,7 +5,10 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Unit tests for geometries.Tube class
@@ -35,4 +38,41 @@ class TubeTest {
         assertEquals(new Vector(0, 1, 0), v2, "Tube getNormal() TC02.1 failed");
         assertEquals(1, v2.length(), "Tube getNormal() TC02.2 failed");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray misses the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(3, 0, 0), new Vector(0, 1, 0))), "TC01: Wrong number of points");
+        // TC02: Ray crosses the tube (2 points)
+        assertEquals(List.of(new Point(-1, 0, 5), new Point(1, 0, 5)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 5), new Vector(1, 0, 0))), "TC02: Wrong points");
+        // TC03: Ray crosses the tube at an angle to the axis (2 points)
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 3)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 0), new Vector(1, 0, 1))), "TC03: Wrong points");
+        // TC04: Ray starts inside the tube (1 point)
+        assertEquals(List.of(new Point(0, 1, 1)),
+                tube.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 1, 0))), "TC04: Wrong points");
+        // TC05: Ray starts after the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(2, 0, 0), new Vector(1, 0, 0))), "TC05: Wrong number of points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to the axis, inside the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))), "TC11: Parallel ray");
+        // TC12: Ray tangent to the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 1, 0), new Vector(1, 0, 0))), "TC12: Tangent ray");
+        // TC13: Ray starts on the tube and goes inside (1 point)
+        assertEquals(List.of(new Point(-1, 0, 0)),
+                tube.findIntersections(new Ray(new Point(1, 0, 0), new Vector(-1, 0, 0))), "TC13: Wrong points");
+        // TC14: Ray starts on the tube and goes outside (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(1, 0, 0), new Vector(1, 0, 0))), "TC14: Wrong number of points");
+        // TC15: The closest point is the first point
+        assertEquals(new Point(-1, 0, 5), tube.findClosestGeoIntersection(
+                new Ray(new Point(-2, 0, 5), new Vector(1, 0, 0))).point, "TC15: Wrong closest point");
+    }
+}
@@ -0,0 +1,131 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.UniformGrid class
+ */
+public class UniformGridTests {
+
+    /**
+     * Test method for {@link geometries.UniformGrid#findGeoIntersections(primitives.Ray)} and
+     * {@link geometries.UniformGrid#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Random random = new Random(2417);
+        List<Intersectable> spheres = new ArrayList<>();
+        for (int i = 0; i < 3000; i++)
+            spheres.add(new Sphere(random.nextDouble() + 0.2,
+                    new Point(random.nextDouble() * 60, random.nextDouble() * 60, random.nextDouble() * 60)));
+        Geometries list = new Geometries(spheres.toArray(new Intersectable[0]));
+        UniformGrid grid = new UniformGrid(spheres);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The grid finds the same points as the list, each point once
+        for (int i = 0; i < 100; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 80 - 10, random.nextDouble() * 80 - 10, -10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            List<Intersectable.GeoPoint> expected = list.findGeoIntersections(ray);
+            List<Intersectable.GeoPoint> actual = grid.findGeoIntersections(ray);
+            if (expected == null) {
+                assertNull(actual, "TC01: No points expected");
+                continue;
+            }
+            assertEquals(expected.size(), actual.size(), "TC01: Wrong number of points");
+            assertTrue(actual.containsAll(expected), "TC01: Wrong points");
+            assertEquals(ray.findClosestGeoPoint(expected), grid.findClosestGeoIntersection(ray), "TC01: Wrong closest point");
+        }
+
+        // TC02: The ray starts inside the grid and goes in a negative direction
+        Ray inside = new Ray(new Point(30, 30, 30), new Vector(-1, -2, -3));
+        assertEquals(inside.findClosestGeoPoint(list.findGeoIntersections(inside)), grid.findClosestGeoIntersection(inside),
+                "TC02: Wrong closest point");
+
+        // TC03: The ray misses the grid
+        assertNull(grid.findGeoIntersections(new Ray(new Point(-10, -10, -10), new Vector(-1, 0, 0))), "TC03: No points expected");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A flat grid (all the geometries on one plane), crossed along its normal
+        List<Intersectable> tiles = new ArrayList<>();
+        for (int x = 0; x < 20; x++)
+            for (int y = 0; y < 20; y++)
+                tiles.add(new Triangle(new Point(x, y, 0), new Point(x + 1, y, 0), new Point(x, y + 1, 0)));
+        UniformGrid floor = new UniformGrid(tiles);
+        assertEquals(1, floor.getResolution()[2], "TC11: A flat axis must have a single cell");
+        assertEquals(new Point(7.2, 3.3, 0), floor.findClosestGeoIntersection(new Ray(new Point(7.2, 3.3, 5), new Vector(0, 0, -1))).point,
+                "TC11: Wrong closest point");
+
+        // TC12: A ray parallel to the axes along the boundary between cells
+        Point min = grid.getBoundingBox().getMinPoint();
+        Point max = grid.getBoundingBox().getMaxPoint();
+        double y = min.getY() + 3 * (max.getY() - min.getY()) / grid.getResolution()[1];
+        double z = min.getZ() + 5 * (max.getZ() - min.getZ()) / grid.getResolution()[2];
+        Ray boundary = new Ray(new Point(-5, y, z), new Vector(1, 0, 0));
+        List<Intersectable.GeoPoint> expected = list.findGeoIntersections(boundary);
+        List<Intersectable.GeoPoint> actual = grid.findGeoIntersections(boundary);
+        assertEquals(expected == null ? 0 : expected.size(), actual == null ? 0 : actual.size(),
+                "TC12: Wrong number of points along a cell boundary");
+
+        // TC13: Unbounded geometry cannot be in a grid
+        assertThrows(IllegalArgumentException.class,
+                () -> new UniformGrid(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "TC13: Unbounded geometry in a grid");
+    }
+
+    /**
+     * Test method for {@link geometries.UniformGrid#findTransmittance(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testFindTransmittance() {
+        // a transparent sphere that overlaps many cells is counted once
+        UniformGrid grid = new UniformGrid(
+                new Sphere(3, new Point(5, 0, 0)).setMaterial(new Material().setKT(0.5)),
+                new Sphere(0.5, new Point(12, 0, 0)), new Sphere(0.5, new Point(12, 5, 0)),
+                new Sphere(0.5, new Point(0, 5, 0)), new Sphere(0.5, new Point(6, 5, 5)));
+        Ray ray = new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A transparent geometry before the distance
+        assertEquals(new Double3(0.25), grid.findTransmittance(ray, 15, 0.001), "TC01: Wrong transmittance");
+
+        // TC02: An opaque geometry before the distance
+        assertEquals(Double3.ZERO, grid.findTransmittance(ray, 20, 0.001), "TC02: The ray is not blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No geometry before the distance
+        assertEquals(Double3.ONE, grid.findTransmittance(ray, 6, 0.001), "TC11: The ray is blocked");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildTree(Geometries.BuildMode)} with a grid.
+     */
+    @Test
+    void testGridBuildMode() {
+        Geometries geometries = new Geometries(new Plane(new Point(0, 0, -1), new Vector(0, 0, 1)));
+        for (int i = 0; i < 100; i++)
+            geometries.add(new Sphere(0.4, new Point(i, 0, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The grid build finds the points of the geometries and of the unbounded geometry beside it
+        geometries.buildTree(Geometries.BuildMode.GRID);
+        Ray ray = new Ray(new Point(37, 0, 5), new Vector(0, 0, -1));
+        assertEquals(3, geometries.findIntersections(ray).size(), "TC01: Wrong number of points");
+
+        // TC02: Rebuilding the geometries as a tree opens the grid again
+        geometries.buildTree(Geometries.BuildMode.SAH);
+        assertEquals(3, geometries.findIntersections(ray).size(), "TC02: Wrong number of points");
+        assertTrue(geometries.getSahCost() < 10, "TC02: The geometries of the grid are not in the tree");
+    }
+}
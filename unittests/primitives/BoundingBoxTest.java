@@ -0,0 +1,80 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.BoundingBox class
+ */
+class BoundingBoxTest {
+
+    /**
+     * Test method for {@link primitives.BoundingBox#entryDistance(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testEntryDistance() {
+        BoundingBox box = new BoundingBox(new Point(1, -1, -1), new Point(3, 1, 1));
+        final double MISS = Double.POSITIVE_INFINITY;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray enters the box inside the interval
+        assertEquals(1, box.entryDistance(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0)), 0, 10), 0.00001,
+                "TC01: Wrong entry distance");
+
+        // TC02: The ray goes in the negative direction
+        assertEquals(2, box.entryDistance(new Ray(new Point(5, 0, 0), new Vector(-1, 0, 0)), 0, 10), 0.00001,
+                "TC02: Wrong entry distance");
+
+        // TC03: The ray misses the box
+        assertEquals(MISS, box.entryDistance(new Ray(new Point(0, 2, 0), new Vector(1, 0, 0)), 0, 10),
+                "TC03: The ray misses the box");
+
+        // TC04: The box is behind the ray
+        assertEquals(MISS, box.entryDistance(new Ray(new Point(0, 0, 0), new Vector(-1, 0, 0)), 0, 10),
+                "TC04: The box is behind the ray");
+
+        // TC05: The box is beyond the end of the interval
+        assertEquals(MISS, box.entryDistance(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0)), 0, 0.5),
+                "TC05: The box is beyond the interval");
+
+        // TC06: The ray starts inside the box
+        assertEquals(0, box.entryDistance(new Ray(new Point(2, 0, 0), new Vector(0, 1, 1)), 0, 10), 0.00001,
+                "TC06: Wrong entry distance from inside the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The ray is parallel to a slab and starts on its plane
+        assertEquals(1, box.entryDistance(new Ray(new Point(0, 1, 0), new Vector(1, 0, 0)), 0, 10), 0.00001,
+                "TC11: Wrong entry distance on the face plane");
+
+        // TC12: The interval ends exactly at the entry
+        assertEquals(1, box.entryDistance(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0)), 0, 1), 0.00001,
+                "TC12: Wrong entry distance at the end of the interval");
+
+        // TC13: The line intersects the box but the ray does not
+        assertTrue(box.intersectsWith(new Ray(new Point(0, 0, 0), new Vector(-1, 0, 0))),
+                "TC13: intersectsWith checks the whole line");
+    }
+
+    /**
+     * Test method for {@link primitives.BoundingBox#expand(primitives.BoundingBox)} and the bounds of a box.
+     */
+    @Test
+    void testExpand() {
+        BoundingBox box = new BoundingBox(new Point(0, 0, 0), new Point(1, 2, 3));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A box expanded by a box that overlaps it
+        box.expand(new BoundingBox(-1, 1, 1, 0.5, 4, 2));
+        assertEquals(new Point(-1, 0, 0), box.getMinPoint(), "TC01: Wrong minimum point");
+        assertEquals(new Point(1, 4, 3), box.getMaxPoint(), "TC01: Wrong maximum point");
+        assertEquals(-1, box.getMinX(), "TC01: Wrong minimum x");
+        assertEquals(4, box.getMaxY(), "TC01: Wrong maximum y");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A box expanded by a box inside it does not change
+        box.expand(new BoundingBox(0, 1, 1, 0.5, 2, 2));
+        assertEquals(new Point(-1, 0, 0), box.getMinPoint(), "TC11: Wrong minimum point");
+        assertEquals(new Point(1, 4, 3), box.getMaxPoint(), "TC11: Wrong maximum point");
+    }
+}
@@ -0,0 +1,29 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for primitives.ColorAccumulator class
+ */
+class ColorAccumulatorTest {
+
+    /**
+     * Test method for {@link primitives.ColorAccumulator#add(primitives.Color, double, double, double)} and
+     * {@link primitives.ColorAccumulator#toColor()}.
+     */
+    @Test
+    void testAdd() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Colors added as they are and weighted
+        Color color = new ColorAccumulator().add(new Color(10, 20, 30))
+                .add(new Color(100, 100, 100), new Double3(0.5, 0.25, 0))
+                .add(new Color(2, 4, 8), 1, 2, 3).toColor();
+        assertEquals(new Double3(62, 53, 54), color.getRgb(), "TC01: Wrong sum of colors");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Nothing added is black
+        assertEquals(Color.BLACK.getRgb(), new ColorAccumulator().toColor().getRgb(), "TC11: Wrong empty sum");
+    }
+}
@@ -4,8 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for primitives.Ray class
@@ -60,4 +59,25 @@ class RayTest {
         // TC03: point is the ray head (t = 0)
         assertEquals(new Point(1, 0, 0), ray.getPoint(0), "ray.getPoint() TC03 failed");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link primitives.Ray#Ray(Point, double, double, double)} and
+     * {@link primitives.Ray#Ray(Point, double, double, double, Vector)}.
+     */
+    @Test
+    void testCoordinatesConstructor() {
+        Point head = new Point(1, 2, 3);
+        Vector n = new Vector(0, 0, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The direction is normalized as the direction of a vector
+        assertEquals(new Ray(head, new Vector(3, 4, 0)), new Ray(head, 3, 4, 0), "TC01: Wrong ray");
+        // TC02: The head is moved along the normal to the side the ray goes to
+        assertEquals(new Ray(new Vector(1, 0, 1), head, n), new Ray(head, 1, 0, 1, n), "TC02: Wrong ray to the normal");
+        assertEquals(new Point(1, 2, 2.9), new Ray(head, 1, 0, -1, n).getP0(), "TC02: Wrong head against the normal");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The zero direction
+        assertThrows(IllegalArgumentException.class, () -> new Ray(head, 0, 0, 0), "TC11: A zero direction");
+    }
+}
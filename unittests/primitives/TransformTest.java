@@ -0,0 +1,69 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Transform class
+ */
+class TransformTest {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * Asserts that two points are equal up to DELTA.
+     *
+     * @param expected the expected point
+     * @param actual   the actual point
+     * @param message  the message of a failure
+     */
+    private void assertPoint(Point expected, Point actual, String message) {
+        assertEquals(0, expected.distance(actual), DELTA, message);
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#transform(primitives.Point)}.
+     */
+    @Test
+    void testTransform() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rotation around the z axis and then translation
+        Transform transform = Transform.rotation(new Vector(0, 0, 1), 90).then(Transform.translation(new Vector(1, 2, 3)));
+        assertPoint(new Point(1, 3, 3), transform.transform(new Point(1, 0, 0)), "TC01: Wrong transformed point");
+
+        // TC02: Transformed vectors are not translated
+        assertPoint(new Vector(0, 1, 0), transform.transformVector(new Vector(1, 0, 0)), "TC02: Wrong transformed vector");
+
+        // TC03: The inverse transform undoes the transform
+        Transform inverse = transform.inverse();
+        assertPoint(new Point(4, -5, 6), inverse.transform(transform.transform(new Point(4, -5, 6))),
+                "TC03: Wrong inverse transform");
+
+        // TC04: Normals stay perpendicular to a surface that is scaled unevenly
+        Transform scaling = Transform.scaling(2, 1, 1);
+        Vector normal = scaling.transformNormal(new Vector(1, 1, 0), scaling.inverse());
+        assertEquals(0, normal.dotProduct(scaling.transformVector(new Vector(1, -1, 0))), DELTA,
+                "TC04: Transformed normal is not perpendicular to the surface");
+
+        // TC05: The bounding box of a rotated box
+        BoundingBox box = Transform.rotation(new Vector(0, 0, 1), 45)
+                .transform(new BoundingBox(new Point(-1, -1, 0), new Point(1, 1, 1)));
+        assertPoint(new Point(-Math.sqrt(2), -Math.sqrt(2), 0), box.getMinPoint(), "TC05: Wrong minimum point");
+        assertPoint(new Point(Math.sqrt(2), Math.sqrt(2), 1), box.getMaxPoint(), "TC05: Wrong maximum point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero scale
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1), "TC11: Zero scale is illegal");
+
+        // TC12: The identity transform
+        assertPoint(new Point(1, 2, 3), Transform.IDENTITY.transform(new Point(1, 2, 3)), "TC12: Identity moved the point");
+
+        // TC13: A small scale has an inverse, although its determinant is tiny
+        Transform small = Transform.scaling(5e-5);
+        assertPoint(new Point(4, -5, 6), small.inverse().transform(small.transform(new Point(4, -5, 6))),
+                "TC13: Wrong inverse of a small scale");
+    }
+}
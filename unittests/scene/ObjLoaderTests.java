@@ -0,0 +1,173 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.TriangleMesh;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.ObjLoader class
+ */
+public class ObjLoaderTests {
+    /**
+     * A temporary directory for the OBJ files.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Writes an OBJ file.
+     *
+     * @param name    the name of the file
+     * @param content the content of the file
+     * @return the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    private Path write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    /**
+     * Test method for {@link scene.ObjLoader#load(java.nio.file.Path)}.
+     *
+     * @throws IOException if the files cannot be written
+     */
+    @Test
+    void testLoad() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A unit square of two triangles, with comments, normals and texture coordinates
+        TriangleMesh square = ObjLoader.load(write("square.obj", """
+                # a square
+                mtllib square.mtl
+                o square
+                v 0 0 0
+                v 1.0 0 0
+                v 0 1 0\r
+                v 1 1 0 1.0
+                vt 0 0
+                vn 0 0 1
+                usemtl white
+                s off
+                f 1/1/1 2/1/1 3/1/1
+                f 4//1 3//1 2//1
+                """));
+        assertEquals(4, square.getVertexCount(), "TC01: Wrong number of vertices");
+        assertEquals(2, square.getFaceCount(), "TC01: Wrong number of faces");
+        Ray down = new Ray(new Point(0.8, 0.7, 1), new Vector(0, 0, -1));
+        assertEquals(new Point(0.8, 0.7, 0), square.findClosestGeoIntersection(down).point, "TC01: Wrong point");
+
+        // TC02: A quad face with negative indices and numbers with exponents and signs
+        TriangleMesh quad = ObjLoader.load(write("quad.obj", """
+                v -1e0 -1 2.5E-1
+                v +1 -1 0.25
+                v 1 1 25e-2
+                v -1 1 .25
+                f -4 -3 -2 -1
+                """));
+        assertEquals(2, quad.getFaceCount(), "TC02: A quad is two triangles");
+        assertEquals(new Point(-0.5, 0.5, 0.25), quad.findClosestGeoIntersection(
+                new Ray(new Point(-0.5, 0.5, 1), new Vector(0, 0, -1))).point, "TC02: Wrong point");
+
+        // TC03: A long number is parsed exactly
+        TriangleMesh precise = ObjLoader.load(write("precise.obj",
+                "v 0.12345678901234567890 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n"));
+        assertEquals(new Point(0.5, 0.25, 0), precise.findClosestGeoIntersection(
+                new Ray(new Point(0.5, 0.25, 1), new Vector(0, 0, -1))).point, "TC03: Wrong point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The last line has no line end
+        assertEquals(1, ObjLoader.load(write("last.obj", "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3")).getFaceCount(),
+                "TC11: Wrong number of faces");
+        // TC12: A face of a vertex that does not exist
+        Path missing = write("missing.obj", "v 0 0 0\nv 1 0 0\nf 1 2 3\n");
+        assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(missing), "TC12: A missing vertex");
+        // TC13: A face of two vertices
+        Path line = write("line.obj", "v 0 0 0\nv 1 0 0\nf 1 2\n");
+        assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(line), "TC13: A face of two vertices");
+        // TC14: A coordinate that is not a number
+        Path letters = write("letters.obj", "v 0 zero 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+        assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(letters), "TC14: Not a number");
+        // TC15: A file with no faces
+        Path empty = write("empty.obj", "v 0 0 0\n");
+        assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(empty), "TC15: No faces");
+        // TC16: A file that does not exist
+        assertThrows(IllegalStateException.class, () -> ObjLoader.load(directory.resolve("none.obj")),
+                "TC16: A missing file");
+    }
+
+    /**
+     * Test method for {@link scene.ObjLoader#load(java.nio.file.Path, int)}.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Test
+    void testParallelLoad() throws IOException {
+        // a terrain whose faces use absolute and relative indices, written as separate triangles too
+        int size = 60;
+        Random random = new Random(3391);
+        StringBuilder obj = new StringBuilder();
+        Geometries triangles = new Geometries();
+        Point[] points = new Point[size * size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                double z = random.nextDouble();
+                points[size * x + y] = new Point(x, y, z);
+                obj.append("v ").append(x).append(' ').append(y).append(' ').append(z).append('\n');
+            }
+            if (x == 0)
+                continue;
+            for (int y = 0; y < size - 1; y++) {
+                int v = size * (x - 1) + y;
+                // the relative indices of the last row of vertices
+                obj.append("f ").append(v + 1).append(' ').append(v + size + 1 - size * (x + 1) - 1)
+                        .append(' ').append(v + 2).append('\n');
+                obj.append("f ").append(v + size + 2).append(' ').append(v + 2).append(' ').append(v + size + 1).append('\n');
+                triangles.add(new Triangle(points[v], points[v + size], points[v + 1]),
+                        new Triangle(points[v + size + 1], points[v + 1], points[v + size]));
+            }
+        }
+        Path file = write("terrain.obj", obj.toString());
+        TriangleMesh serial = ObjLoader.load(file);
+        TriangleMesh parallel = ObjLoader.load(file, 4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The serial and the parallel loads find the points of the triangles
+        assertEquals(2 * (size - 1) * (size - 1), parallel.getFaceCount(), "TC01: Wrong number of faces");
+        assertEquals(size * size, parallel.getVertexCount(), "TC01: Wrong number of vertices");
+        for (int i = 0; i < 200; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * size, random.nextDouble() * size, 5),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Intersectable.GeoPoint expected = triangles.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint actual = parallel.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                assertNull(actual, "TC01: No point expected");
+                assertNull(serial.findClosestGeoIntersection(ray), "TC01: No point expected");
+                continue;
+            }
+            assertTrue(expected.point.distance(actual.point) < 1e-9, "TC01: Wrong point of the parallel load");
+            assertTrue(expected.point.distance(serial.findClosestGeoIntersection(ray).point) < 1e-9,
+                    "TC01: Wrong point of the serial load");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: More threads than lines
+        assertEquals(1, ObjLoader.load(write("small.obj", "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n"), 16).getFaceCount(),
+                "TC11: Wrong number of faces");
+        // TC12: No threads
+        assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(file, 0), "TC12: No threads");
+    }
+}
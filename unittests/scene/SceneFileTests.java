@@ -0,0 +1,178 @@
+package scene;
+
+import geometries.Cylinder;
+import geometries.Geometries;
+import geometries.Instance;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import geometries.TriangleMesh;
+import geometries.Tube;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.RayTracerBasic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.SceneFile class
+ */
+public class SceneFileTests {
+    /**
+     * A temporary directory for the scene files.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a scene with every kind of geometry and light.
+     *
+     * @return the scene
+     */
+    private static Scene createScene() {
+        Material shiny = new Material().setKD(0.4).setKS(0.6).setNShininess(80).setKR(0.2);
+        Material glass = new Material().setKD(0.1).setKS(0.3).setKT(0.7);
+        Scene scene = new Scene("Every geometry").setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.geometries.add(
+                new Sphere(20, new Point(0, 0, -100)).setEmission(new Color(0, 0, 80)).setMaterial(glass),
+                new Plane(new Point(0, -40, 0), new Vector(0, 1, 0)).setMaterial(shiny),
+                new Triangle(new Point(-60, -40, -150), new Point(60, -40, -150), new Point(0, 60, -150))
+                        .setEmission(new Color(40, 0, 0)).setMaterial(shiny),
+                new Polygon(new Point(30, 0, -90), new Point(50, 0, -90), new Point(50, 20, -90), new Point(30, 20, -90))
+                        .setMaterial(shiny),
+                new Tube(3, new Ray(new Point(-40, 0, -120), new Vector(0, 1, 0))).setMaterial(glass),
+                new Cylinder(5, new Ray(new Point(40, -40, -120), new Vector(0, 1, 0)), 30).setMaterial(shiny),
+                new Geometries(new TriangleMesh(
+                        new double[]{-50, 30, -110, -30, 30, -110, -50, 50, -110, -30, 50, -110},
+                        new int[]{0, 1, 2, 3, 2, 1}).setEmission(new Color(0, 50, 0)).setMaterial(shiny)));
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(-1, -1, -1)));
+        scene.lights.add(new PointLight(new Color(300, 200, 100), new Point(50, 50, 0), 4).setKL(1e-4).setKQ(1e-6));
+        scene.lights.add(new SpotLight(new Color(400, 240, 0), new Point(-50, 50, 0), new Vector(1, -1, -3))
+                .setKL(1e-5).setKQ(1.5e-7));
+        scene.lights.add(new SpotLight(new Color(200, 240, 0), new Point(0, 80, 0), new Vector(0, -1, -1), 0));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link scene.SceneFile#write(java.nio.file.Path, scene.Scene, renderer.Camera)} and
+     * {@link scene.SceneFile#load(java.nio.file.Path)}.
+     */
+    @Test
+    void testWriteAndLoad() {
+        Scene scene = createScene();
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(150, 100).setVPDistance(100);
+        Path file = directory.resolve("scene.rtsc");
+        SceneFile.write(file, scene, camera);
+        SceneFile loaded = SceneFile.load(file);
+        Scene copy = loaded.getScene();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The scene and its lights
+        assertEquals(scene.name, copy.name, "TC01: Wrong name");
+        assertEquals(scene.background.getRgb(), copy.background.getRgb(), "TC01: Wrong background");
+        assertEquals(scene.ambientLight.getIntensity().getRgb(), copy.ambientLight.getIntensity().getRgb(),
+                "TC01: Wrong ambient light");
+        assertEquals(scene.lights.size(), copy.lights.size(), "TC01: Wrong number of lights");
+        assertEquals(7, copy.geometries.getPrimitives().size(), "TC01: Wrong number of geometries");
+
+        // TC02: The camera
+        Camera cameraCopy = loaded.getCamera();
+        assertEquals(camera.getWidth(), cameraCopy.getWidth(), "TC02: Wrong view plane width");
+        assertEquals(camera.getDistance(), cameraCopy.getDistance(), "TC02: Wrong view plane distance");
+        for (int i = 0; i < 5; i++)
+            assertEquals(camera.constructRay(5, 5, i, 4 - i), cameraCopy.constructRay(5, 5, i, 4 - i),
+                    "TC02: Wrong ray of the camera");
+
+        // TC03: The loaded scene is rendered as the scene
+        RayTracerBasic tracer = new RayTracerBasic(scene);
+        RayTracerBasic copyTracer = new RayTracerBasic(copy);
+        Random random = new Random(4471);
+        for (int i = 0; i < 300; i++) {
+            Ray ray = camera.constructRay(100, 100, random.nextInt(100), random.nextInt(100));
+            assertEquals(tracer.traceRay(ray).getRgb(), copyTracer.traceRay(ray).getRgb(), "TC03: Wrong color");
+        }
+
+        // TC04: A mesh is loaded with its tree, so it is not built again
+        TriangleMesh mesh = (TriangleMesh) scene.geometries.getPrimitives().get(6);
+        TriangleMesh meshCopy = (TriangleMesh) copy.geometries.getPrimitives().get(6);
+        assertArrayEquals(mesh.getFaces(), meshCopy.getFaces(), "TC04: Wrong faces of the mesh");
+        assertArrayEquals(mesh.getNodes(), meshCopy.getNodes(), "TC04: Wrong nodes of the mesh");
+        assertArrayEquals(mesh.getNodeBounds(), meshCopy.getNodeBounds(), "TC04: Wrong bounds of the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A scene with no camera and no geometries
+        Path empty = directory.resolve("empty.rtsc");
+        SceneFile.write(empty, new Scene("Empty"), null);
+        SceneFile emptyLoaded = SceneFile.load(empty);
+        assertNull(emptyLoaded.getCamera(), "TC11: A camera that was not written");
+        assertTrue(emptyLoaded.getScene().geometries.getPrimitives().isEmpty(), "TC11: Geometries that were not written");
+    }
+
+    /**
+     * Test method for {@link scene.SceneFile#load(java.nio.file.Path)} of files that are not valid.
+     *
+     * @throws IOException if the files cannot be written
+     */
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path file = directory.resolve("scene.rtsc");
+        SceneFile.write(file, createScene(), null);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A file that is not a scene file
+        Path text = directory.resolve("text.rtsc");
+        Files.writeString(text, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+        assertThrows(IllegalArgumentException.class, () -> SceneFile.load(text), "TC01: Not a scene file");
+
+        // TC02: A scene file of another version
+        Path version = directory.resolve("version.rtsc");
+        byte[] other = bytes.clone();
+        ByteBuffer.wrap(other).order(ByteOrder.LITTLE_ENDIAN).putInt(4, 99);
+        Files.write(version, other);
+        assertThrows(IllegalArgumentException.class, () -> SceneFile.load(version), "TC02: Another version");
+
+        // TC03: A geometry that cannot be written
+        Scene instances = new Scene("Instances");
+        instances.geometries.add(new Instance(new Geometries(new Sphere(1, new Point(0, 0, 0))), Transform.IDENTITY));
+        assertThrows(IllegalArgumentException.class, () -> SceneFile.write(directory.resolve("instances.rtsc"), instances, null),
+                "TC03: An instance cannot be written");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A truncated file
+        Path truncated = directory.resolve("truncated.rtsc");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 20));
+        assertThrows(IllegalArgumentException.class, () -> SceneFile.load(truncated), "TC11: A truncated file");
+
+        // TC12: A damaged length of the name
+        for (int length : new int[]{-1, Integer.MAX_VALUE}) {
+            Path damaged = directory.resolve("damaged.rtsc");
+            byte[] copy = bytes.clone();
+            ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(12, length);
+            Files.write(damaged, copy);
+            assertThrows(IllegalArgumentException.class, () -> SceneFile.load(damaged), "TC12: A damaged name length");
+        }
+    }
+}